@@ -0,0 +1,265 @@
+package adxl362;
+
+import java.io.IOException;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * ADXL362 driver core, shared by the pi4j and Android Things libraries.
+ * Everything but the SPI transfer itself lives here: register map, burst read plans,
+ * configuration shadow, FIFO reads and decoding. Only {@link SpiTransport} is platform specific,
+ * so every backend runs the same read path.
+ * Transfer buffers are preallocated, reads do not allocate except the methods returning arrays.
+ * Thread safety: every method doing a transfer is synchronized on the device, so a sampling
+ * thread, a sensor framework thread and a configuration thread can share one instance, each
+ * transfer and its decoding are atomic. A {@link ReadPlan} may be shared, a {@link Snapshot}
+ * may not be filled by two threads at once. {@link #getConfig()} is not synchronized: change
+ * the shadow from one thread, or hold the device lock while changing and flushing it.
+ * X, Y, Z axis values are obtained as integers.
+ * Temperature values are obtained as integers.
+ */
+public class Adxl362Device {
+
+    private static final byte[] SOFT_RESET = {Registers.CMD_WRITE, Registers.SOFT_RESET, Registers.SOFT_RESET_KEY};
+
+    private final SpiTransport transport;
+    private final RegisterShadow config = new RegisterShadow();
+    private final ReadPlan configPlan = new ReadPlan(Field.THRESH_ACT, Field.SELF_TEST);   // one burst over all config registers
+    private final Snapshot configSnapshot = new Snapshot();
+    private final byte[] configWrite = new byte[RegisterShadow.SIZE + 2];
+    private final byte[] response = new byte[Math.max(Registers.REGISTER_COUNT + 2, RegisterShadow.SIZE + 2)];
+    private final byte[] fifoRequest = new byte[FifoDecoder.CAPACITY * 2 + 1];
+    private final byte[] fifoResponse = new byte[FifoDecoder.CAPACITY * 2 + 1];
+    private final byte[] burstRequest = new byte[10];
+    private final byte[] burstResponse = new byte[10];
+
+    /**
+     * @param transport - SPI link to the ADXL362, configured for MODE_0 and 1MHz to 8MHz
+     */
+    public Adxl362Device(SpiTransport transport) {
+        this.transport = transport;
+        fifoRequest[0] = Registers.CMD_READ_FIFO;
+        burstRequest[0] = Registers.CMD_READ;
+    }
+
+    /**
+     * @return the SPI link of this device.
+     */
+    public SpiTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Soft reset the device before beginning the measurement.
+     * This requires a small delay for the settlement of the sensor after reset,
+     * other threads using the device wait until it is over.
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    public synchronized void doSoftReset() throws IOException, InterruptedException {
+        transport.transfer(SOFT_RESET, response, SOFT_RESET.length);
+        config.reset();
+        Thread.sleep(1000);
+    }
+
+    /**
+     * Puts the accelerometer in measurement mode.
+     * This method is mandatory to be called before starting
+     * with the readings of X, Y, Z and Temp values.
+     * This method enables the measurement mode on ADXL362.
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    public synchronized void beginMeasurement() throws IOException, InterruptedException {
+        config.setMeasurement(true);
+        flushConfig();
+        Thread.sleep(10);
+    }
+
+    /**
+     * Configuration registers as known to the host.
+     * Changes made on the returned shadow reach the device on {@link #flushConfig()}.
+     * @return register shadow of this device.
+     */
+    public RegisterShadow getConfig() {
+        return config;
+    }
+
+    /**
+     * Write all pending configuration changes.
+     * Dirty registers are written with one auto-increment write spanning the first
+     * to the last changed register. Nothing is written if no value changed.
+     * If the device state is unknown (no reset or verify yet) it is read first.
+     * @return number of registers written.
+     * @throws IOException
+     */
+    public synchronized int flushConfig() throws IOException {
+        if (!config.isSynced()) {
+            syncConfig();
+        }
+        int first = config.firstPending();
+        if (first < 0) {
+            return 0;
+        }
+        int last = config.lastPending();
+        int length = last - first + 1;
+        configWrite[0] = Registers.CMD_WRITE;                       // write instruction
+        configWrite[1] = (byte) (RegisterShadow.FIRST + first);     // first register, auto-incremented
+        config.copyPending(first, last, configWrite, 2);
+        transport.transfer(configWrite, response, length + 2);
+        config.committed(first, last);
+        return length;
+    }
+
+    /**
+     * Read the configuration registers back and compare them with the shadow.
+     * Registers that drifted (brown-out, SEU, another master) are queued for
+     * rewriting with their last known value, call {@link #flushConfig()} to restore them.
+     * @return number of registers that differ from what was last written.
+     * @throws IOException
+     */
+    public synchronized int verifyConfig() throws IOException {
+        return syncConfig();
+    }
+
+    private int syncConfig() throws IOException {
+        read(configPlan, configSnapshot);
+        return config.load(configSnapshot.getRegisters());
+    }
+
+    /**
+     * Read X axis data changes
+     * @return X axis values as integer.
+     * @throws IOException
+     */
+    public synchronized int readXData() throws IOException {
+        return readRegisterValue(Registers.XDATA_L);
+    }
+
+    /**
+     * Read Y axis data changes
+     * @return Y axis values as integer.
+     * @throws IOException
+     */
+    public synchronized int readYData() throws IOException {
+        return readRegisterValue(Registers.YDATA_L);
+    }
+
+    /**
+     * Read Z axis data changes
+     * @return Z axis values as integer.
+     * @throws IOException
+     */
+    public synchronized int readZData() throws IOException {
+        return readRegisterValue(Registers.ZDATA_L);
+    }
+
+    /**
+     * Read Temperature sensor data
+     * @return internal system temperature as integer.
+     * @throws IOException
+     */
+    public synchronized int readTempData() throws IOException {
+        return readRegisterValue(Registers.TEMP_L);
+    }
+
+    /**
+     * Read X, Y and Z axis values simultaneously, leaving temperature out.
+     * The burst is 8 bytes instead of 10, use it when temperature is read on its own schedule.
+     * @return array of integer values of X, Y and Z axis.
+     * @throws IOException
+     */
+    public synchronized int[] readXYZData() throws IOException {
+        burst(Registers.XDATA_L, 6);
+        return new int[]{value(0), value(1), value(2)};
+    }
+
+    /**
+     * Read X, Y and Z axis values with one burst read, without allocating.
+     * Meant for high rate sampling loops.
+     * @param destination - array receiving X, Y and Z
+     * @param offset - index of X in the destination
+     * @throws IOException
+     */
+    public synchronized void readXYZData(short[] destination, int offset) throws IOException {
+        burst(Registers.XDATA_L, 6);
+        destination[offset] = (short) value(0);
+        destination[offset + 1] = (short) value(1);
+        destination[offset + 2] = (short) value(2);
+    }
+
+    /**
+     * Read X, Y, Z axis and temperature values simultaneously.
+     * A burst read of all the three axis is required for all measurements
+     * corresponding to same sample rate.
+     * @return array of integer values of X, Y, Z axis and temperature.
+     * @throws IOException
+     */
+    public synchronized int[] readXYZTempData() throws IOException {
+        burst(Registers.XDATA_L, 8);
+        return new int[]{value(0), value(1), value(2), value(3)};
+    }
+
+    /**
+     * Execute a read plan, filling the snapshot with one consistent set of values.
+     * All fields of the plan are fetched with {@link ReadPlan#getTransactionCount()}
+     * burst reads, usually a single one.
+     * @param plan - registers to be read, see {@link ReadPlan}
+     * @param snapshot - destination, overwritten on every call
+     * @return the snapshot passed in.
+     * @throws IOException
+     */
+    public synchronized Snapshot read(ReadPlan plan, Snapshot snapshot) throws IOException {
+        for (int i = 0; i < plan.getTransactionCount(); i++) {
+            byte[] request = plan.getRequest(i);
+            transport.transfer(request, response, request.length);
+            snapshot.fill(plan, i, response);
+        }
+        snapshot.complete(plan, System.nanoTime());
+        return snapshot;
+    }
+
+    /**
+     * Read entries out of the FIFO with one burst.
+     * Entries are returned raw, with their channel ID, see {@link FifoDecoder}.
+     * Read FIFO_ENTRIES first, reading more entries than available returns garbage.
+     * @param entries - destination of the raw 16 bit entries
+     * @param offset - index of the first entry in the destination
+     * @param count - number of entries to be read, up to 512
+     * @throws SpiFaultException if count is out of range, e.g. a FIFO_ENTRIES read over a broken link
+     * @throws IOException
+     */
+    public synchronized void readFifo(short[] entries, int offset, int count) throws IOException {
+        if (count < 0 || count > FifoDecoder.CAPACITY) {
+            throw new SpiFaultException(count + " FIFO entries requested, the FIFO holds " + FifoDecoder.CAPACITY);
+        }
+        transport.transfer(fifoRequest, fifoResponse, count * 2 + 1);     // instruction, then 2 bytes per entry
+        for (int i = 0; i < count; i++) {
+            entries[offset + i] = (short) ((fifoResponse[1 + i * 2] & 0xFF) | (fifoResponse[2 + i * 2] << 8));
+        }
+    }
+
+    /**
+     * Read register values.
+     * @param regAddress - address of the LSB register
+     * @return 16 bit integer values combining both LSB and MSB registers.
+     * @throws IOException
+     */
+    private int readRegisterValue(int regAddress) throws IOException {
+        burst(regAddress, 2);
+        return value(0);
+    }
+
+    private void burst(int address, int length) throws IOException {
+        burstRequest[1] = (byte) address;          // read instruction is set once, dummy bytes stay 0
+        transport.transfer(burstRequest, burstResponse, length + 2);
+    }
+
+    /**
+     * @return 16 bit value number {@code index} of the last burst, LSB first.
+     */
+    private int value(int index) {
+        return (burstResponse[2 + index * 2] & 0xFF) + (burstResponse[3 + index * 2] << 8);
+    }
+}
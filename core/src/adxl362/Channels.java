@@ -0,0 +1,29 @@
+package adxl362;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Channels read with every sample.
+ * Temperature changes over minutes, so leaving it out of the FIFO entries fits 170 instead
+ * of 128 samples in the FIFO. It is then read separately on a slow schedule, see {@link FifoReader}.
+ */
+public enum Channels {
+    /** X, Y and Z only. */
+    XYZ(3),
+    /** X, Y, Z and temperature. */
+    XYZ_TEMP(4);
+
+    private final int count;
+
+    Channels(int count) {
+        this.count = count;
+    }
+
+    /**
+     * @return values per sample.
+     */
+    public int getCount() {
+        return count;
+    }
+}
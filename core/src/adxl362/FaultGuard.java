@@ -0,0 +1,244 @@
+package adxl362;
+
+import java.io.IOException;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Validates reads from an ADXL362 and recovers in place from SPI faults.
+ * Every frame is checked for the all 0x00 / all 0xFF pattern of a dead bus, and every
+ * {@link #setCheckInterval(int)} reads the device ID is read and the configuration
+ * registers are verified against the {@link RegisterShadow}.
+ * On a fault the read is retried with exponential backoff. Before each retry the
+ * device ID is checked and the configuration is re-applied from the shadow if it was lost,
+ * e.g. after a brown-out, so no soft reset and its one second settling time are needed.
+ * The first snapshot after a recovery is marked with {@link Snapshot#isAfterGap()}.
+ * If the device can't be recovered a {@link SpiFaultException} is thrown, and the next
+ * snapshot read successfully is marked as well.
+ * FIFO reads get the same handling through {@link #readFifo(Snapshot, short[], int, int)}.
+ * Reads are synchronized, several threads may share the guard of a device.
+ */
+public final class FaultGuard {
+
+    private final Adxl362Device adxl362;
+    private final ReadPlan identityPlan = new ReadPlan(Field.DEVID_AD, Field.DEVID_MST, Field.PARTID);
+    private final Snapshot identity = new Snapshot();
+    private final ReadPlan fifoPlan = new ReadPlan(Field.STATUS, Field.FIFO_ENTRIES);
+
+    private int checkInterval = 1000;
+    private int maxRetries = 5;
+    private long initialBackoffMillis = 1;
+    private long maxBackoffMillis = 100;
+
+    private int readsSinceCheck;
+    private boolean gapPending;
+    private long faults;
+    private long recoveries;
+    private long reconfigurations;
+
+    /**
+     * @param adxl362 - device to be guarded. Its configuration should be set through
+     *                {@link Adxl362Device#getConfig()} so it can be restored after a fault.
+     */
+    public FaultGuard(Adxl362Device adxl362) {
+        this.adxl362 = adxl362;
+    }
+
+    /**
+     * @return the guarded device.
+     */
+    public Adxl362Device getDevice() {
+        return adxl362;
+    }
+
+    /**
+     * @param reads - number of reads between two device ID and configuration checks
+     * @return this guard, for chaining.
+     */
+    public FaultGuard setCheckInterval(int reads) {
+        this.checkInterval = reads;
+        return this;
+    }
+
+    /**
+     * @param maxRetries - attempts before giving up on a fault
+     * @param initialBackoffMillis - delay before the first retry, doubled on each attempt
+     * @param maxBackoffMillis - upper bound of the delay between two retries
+     * @return this guard, for chaining.
+     */
+    public FaultGuard setRetries(int maxRetries, long initialBackoffMillis, long maxBackoffMillis) {
+        this.maxRetries = maxRetries;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        return this;
+    }
+
+    /**
+     * Execute a read plan with fault detection and recovery.
+     * @param plan - registers to be read
+     * @param snapshot - destination, overwritten on every call
+     * @return the snapshot passed in, marked if samples were lost before it.
+     * @throws SpiFaultException if the device could not be recovered
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    public synchronized Snapshot read(ReadPlan plan, Snapshot snapshot) throws IOException, InterruptedException {
+        String fault;
+        IOException cause = null;
+        try {
+            adxl362.read(plan, snapshot);
+            fault = plan.isStuck(snapshot.getRegisters()) ? "stuck frame" : null;
+            if (fault == null && ++readsSinceCheck >= checkInterval) {
+                readsSinceCheck = 0;
+                fault = checkDevice();
+                if (fault == null && restoreConfig()) {
+                    snapshot.markAfterGap();    // samples since the last check used a lost configuration
+                }
+            }
+        } catch (IOException e) {
+            fault = "SPI error";
+            cause = e;
+        }
+        if (fault == null) {
+            if (gapPending) {
+                snapshot.markAfterGap();    // samples were lost with the last SpiFaultException
+                gapPending = false;
+            }
+            return snapshot;
+        }
+        faults++;
+        recover(plan, snapshot, fault, cause);
+        return snapshot;
+    }
+
+    /**
+     * Drain FIFO entries with fault detection and recovery.
+     * STATUS and FIFO_ENTRIES are read through {@link #read(ReadPlan, Snapshot)}, then the entries
+     * with one burst. FIFO_ENTRIES larger than the FIFO, and a burst of identical entries (the
+     * channel ID of consecutive entries always differs), are faults handled like a stuck frame.
+     * After a recovery no entries are returned and the snapshot is marked, the next call
+     * drains what the FIFO holds by then.
+     * @param status - receives STATUS and FIFO_ENTRIES, marked if entries were lost before this call
+     * @param entries - destination of the raw entries, see {@link FifoDecoder}
+     * @param offset - index of the first entry in the destination
+     * @param max - most entries to be read
+     * @return number of entries read.
+     * @throws SpiFaultException if the device could not be recovered
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    public synchronized int readFifo(Snapshot status, short[] entries, int offset, int max)
+            throws IOException, InterruptedException {
+        read(fifoPlan, status);
+        int available = status.getFifoEntries();
+        int count = Math.min(available, max);
+        String fault = null;
+        IOException cause = null;
+        if (available > FifoDecoder.CAPACITY) {
+            fault = "FIFO_ENTRIES out of range";
+        } else if (count > 0) {
+            try {
+                adxl362.readFifo(entries, offset, count);
+                fault = isStuck(entries, offset, count) ? "stuck FIFO" : null;
+            } catch (IOException e) {
+                fault = "SPI error";
+                cause = e;
+            }
+        }
+        if (fault == null) {
+            return count;
+        }
+        faults++;
+        recover(fifoPlan, status, fault, cause);
+        return 0;
+    }
+
+    private static boolean isStuck(short[] entries, int offset, int count) {
+        for (int i = offset + 1; i < offset + count; i++) {
+            if (entries[i] != entries[offset]) {
+                return false;
+            }
+        }
+        return count > 1;
+    }
+
+    private void recover(ReadPlan plan, Snapshot snapshot, String fault, IOException cause)
+            throws SpiFaultException, InterruptedException {
+        long backoff = initialBackoffMillis;
+        for (int attempt = 0; attempt < maxRetries; attempt++) {
+            Thread.sleep(backoff);
+            backoff = Math.min(backoff * 2, maxBackoffMillis);
+            try {
+                String check = checkDevice();
+                if (check != null) {
+                    fault = check;
+                    continue;
+                }
+                restoreConfig();
+                adxl362.read(plan, snapshot);
+                if (plan.isStuck(snapshot.getRegisters())) {
+                    fault = "stuck frame";
+                    continue;
+                }
+                snapshot.markAfterGap();
+                gapPending = false;
+                readsSinceCheck = 0;
+                recoveries++;
+                return;
+            } catch (IOException e) {
+                cause = e;
+            }
+        }
+        gapPending = true;
+        throw new SpiFaultException(fault + ", not recovered after " + maxRetries + " retries", cause);
+    }
+
+    /**
+     * @return a description of the fault, null if the device answers with its IDs.
+     */
+    private String checkDevice() throws IOException {
+        adxl362.read(identityPlan, identity);
+        if (identity.get(Field.DEVID_AD) != Registers.DEVID_AD_VALUE
+                || identity.get(Field.DEVID_MST) != Registers.DEVID_MST_VALUE
+                || identity.get(Field.PARTID) != Registers.PARTID_VALUE) {
+            return String.format("unexpected device ID %02X %02X %02X", identity.get(Field.DEVID_AD),
+                    identity.get(Field.DEVID_MST), identity.get(Field.PARTID));
+        }
+        return null;
+    }
+
+    /**
+     * Re-apply the known configuration if the device lost it.
+     * @return true if some register had to be rewritten.
+     */
+    private boolean restoreConfig() throws IOException {
+        if (adxl362.verifyConfig() == 0) {
+            return false;
+        }
+        adxl362.flushConfig();
+        reconfigurations++;
+        return true;
+    }
+
+    /**
+     * @return number of faults detected.
+     */
+    public long getFaults() {
+        return faults;
+    }
+
+    /**
+     * @return number of faults recovered from without losing the stream.
+     */
+    public long getRecoveries() {
+        return recoveries;
+    }
+
+    /**
+     * @return number of times the configuration was re-applied.
+     */
+    public long getReconfigurations() {
+        return reconfigurations;
+    }
+}
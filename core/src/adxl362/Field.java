@@ -0,0 +1,76 @@
+package adxl362;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Readable values of the ADXL362, each one a single register or an L/H register pair.
+ * Fields are combined into a {@link ReadPlan} to fetch them with as few SPI transactions as possible.
+ */
+public enum Field {
+    DEVID_AD(Registers.DEVID_AD, 1, false),
+    DEVID_MST(Registers.DEVID_MST, 1, false),
+    PARTID(Registers.PARTID, 1, false),
+    REVID(Registers.REVID, 1, false),
+    /** 8 bit X axis value (MSBs only). */
+    XDATA8(Registers.XDATA, 1, true),
+    /** 8 bit Y axis value (MSBs only). */
+    YDATA8(Registers.YDATA, 1, true),
+    /** 8 bit Z axis value (MSBs only). */
+    ZDATA8(Registers.ZDATA, 1, true),
+    STATUS(Registers.STATUS, 1, false),
+    FIFO_ENTRIES(Registers.FIFO_ENTRIES_L, 2, false),
+    X(Registers.XDATA_L, 2, true),
+    Y(Registers.YDATA_L, 2, true),
+    Z(Registers.ZDATA_L, 2, true),
+    TEMP(Registers.TEMP_L, 2, true),
+    THRESH_ACT(Registers.THRESH_ACT_L, 2, false),
+    TIME_ACT(Registers.TIME_ACT, 1, false),
+    THRESH_INACT(Registers.THRESH_INACT_L, 2, false),
+    TIME_INACT(Registers.TIME_INACT_L, 2, false),
+    ACT_INACT_CTL(Registers.ACT_INACT_CTL, 1, false),
+    FIFO_CONTROL(Registers.FIFO_CONTROL, 1, false),
+    FIFO_SAMPLES(Registers.FIFO_SAMPLES, 1, false),
+    INTMAP1(Registers.INTMAP1, 1, false),
+    INTMAP2(Registers.INTMAP2, 1, false),
+    FILTER_CTL(Registers.FILTER_CTL, 1, false),
+    POWER_CTL(Registers.POWER_CTL, 1, false),
+    SELF_TEST(Registers.SELF_TEST, 1, false);
+
+    private final int address;
+    private final int width;
+    private final boolean signed;
+
+    Field(int address, int width, boolean signed) {
+        this.address = address;
+        this.width = width;
+        this.signed = signed;
+    }
+
+    /**
+     * @return address of the first (L) register of this field.
+     */
+    public int getAddress() {
+        return address;
+    }
+
+    /**
+     * @return number of registers occupied by this field, 1 or 2.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Decode this field out of a register image.
+     * @param registers - register values indexed by address
+     * @return decoded value, sign extended for the data registers.
+     */
+    int decode(byte[] registers) {
+        if (width == 1) {
+            return signed ? registers[address] : registers[address] & 0xFF;
+        }
+        int high = signed ? registers[address + 1] : registers[address + 1] & 0xFF;
+        return (registers[address] & 0xFF) + (high << 8);
+    }
+}
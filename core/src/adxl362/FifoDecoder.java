@@ -0,0 +1,104 @@
+package adxl362;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Turns raw FIFO entries into complete samples.
+ * Each 16 bit FIFO entry carries a channel ID in bits 15:14 (X, Y, Z, temperature) and a
+ * sign extended 12 bit value. The FIFO may start in the middle of a sample, e.g. after the
+ * oldest entries were overwritten, so the decoder only emits complete X, Y, Z (and temperature)
+ * sets and skips entries until the next X whenever the sequence breaks.
+ * State is kept between calls, entries can be fed in chunks of any size.
+ */
+public final class FifoDecoder {
+
+    public static final int CHANNEL_X = 0;
+    public static final int CHANNEL_Y = 1;
+    public static final int CHANNEL_Z = 2;
+    public static final int CHANNEL_TEMP = 3;
+
+    /** Depth of the ADXL362 FIFO, in entries. */
+    public static final int CAPACITY = 512;
+
+    private final int channels;
+    private final short[] partial = new short[4];
+    private int next;
+    private long skipped;
+
+    /**
+     * @param withTemperature - true if the FIFO stores a temperature entry after each X, Y, Z
+     */
+    public FifoDecoder(boolean withTemperature) {
+        this.channels = withTemperature ? 4 : 3;
+    }
+
+    /**
+     * @param entry - raw FIFO entry
+     * @return channel ID of the entry, CHANNEL_X to CHANNEL_TEMP.
+     */
+    public static int channelOf(int entry) {
+        return (entry >> 14) & 0x03;
+    }
+
+    /**
+     * @param entry - raw FIFO entry
+     * @return signed value of the entry.
+     */
+    public static int valueOf(int entry) {
+        return (short) (entry << 2) >> 2;       // bits 13:12 already hold the sign
+    }
+
+    /**
+     * @return values per sample, 3 or 4.
+     */
+    public int getChannels() {
+        return channels;
+    }
+
+    /**
+     * Decode raw entries.
+     * @param entries - raw FIFO entries, as read by {@link Adxl362Device#readFifo(short[], int, int)}
+     * @param offset - index of the first entry
+     * @param count - number of entries
+     * @param samples - receives complete samples, {@link #getChannels()} values each
+     * @param samplesOffset - index where the first value is stored
+     * @return number of complete samples written.
+     */
+    public int decode(short[] entries, int offset, int count, short[] samples, int samplesOffset) {
+        int decoded = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int entry = entries[i];
+            int channel = channelOf(entry);
+            if (channel != next) {
+                skipped += next + 1;        // entries of the broken sample, this one included
+                next = 0;
+                if (channel != CHANNEL_X) {
+                    continue;
+                }
+                skipped--;                  // this X starts the next sample
+            }
+            partial[next++] = (short) valueOf(entry);
+            if (next == channels) {
+                System.arraycopy(partial, 0, samples, samplesOffset + decoded * channels, channels);
+                decoded++;
+                next = 0;
+            }
+        }
+        return decoded;
+    }
+
+    /**
+     * Forget a partially decoded sample, e.g. after the FIFO was reset.
+     */
+    public void reset() {
+        next = 0;
+    }
+
+    /**
+     * @return number of entries dropped to resynchronise on X.
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+}
@@ -0,0 +1,29 @@
+package adxl362;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * FIFO operating mode, bits 1:0 of FIFO_CONTROL.
+ */
+public enum FifoMode {
+    DISABLED(0x00),
+    /** Stops once full, the oldest samples are kept. */
+    OLDEST_SAVED(0x01),
+    /** Overwrites the oldest samples once full. */
+    STREAM(0x02),
+    /** Keeps FIFO_SAMPLES entries before an activity event, then fills up with the samples after it. */
+    TRIGGERED(0x03);
+
+    static final int MASK = 0x03;
+
+    private final int bits;
+
+    FifoMode(int bits) {
+        this.bits = bits;
+    }
+
+    int getBits() {
+        return bits;
+    }
+}
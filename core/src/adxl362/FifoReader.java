@@ -0,0 +1,129 @@
+package adxl362;
+
+import java.io.IOException;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Drains the ADXL362 FIFO in stream mode into {@link SampleBatch}es.
+ * With {@link Channels#XYZ} the FIFO stores no temperature entries, which leaves room for
+ * 170 samples instead of 128, and the temperature is read with a separate small burst
+ * at most once per temperature interval. Either way every batch carries the latest temperature.
+ * Each call costs two transactions (STATUS with FIFO_ENTRIES, then the FIFO itself),
+ * plus the occasional temperature read.
+ * Built on a {@link FaultGuard}, the FIFO is read with its fault detection and recovery,
+ * and batches following lost samples are marked with {@link SampleBatch#isAfterGap()}.
+ */
+public class FifoReader {
+
+    private static final int STATUS_FIFO_OVERRUN = 0x08;
+
+    private final Adxl362Device adxl362;
+    private final FaultGuard guard;
+    private final Channels channels;
+    private final long temperatureIntervalNanos;
+    private final FifoDecoder decoder;
+    private final ReadPlan statusPlan = new ReadPlan(Field.STATUS, Field.FIFO_ENTRIES);
+    private final ReadPlan temperaturePlan = new ReadPlan(Field.TEMP);
+    private final Snapshot snapshot = new Snapshot();
+    private final short[] entries = new short[FifoDecoder.CAPACITY];
+    private final short[] decoded = new short[(FifoDecoder.CAPACITY / 3 + 1) * 4];
+
+    private boolean temperatureRead;
+    private int temperature;
+    private long temperatureNanos;
+
+    /**
+     * @param adxl362 - device, already configured for range and ODR
+     * @param channels - XYZ to keep temperature out of the FIFO, XYZ_TEMP to store it with every sample
+     * @param temperatureIntervalMillis - time between two temperature reads with XYZ
+     */
+    public FifoReader(Adxl362Device adxl362, Channels channels, long temperatureIntervalMillis) {
+        this(adxl362, null, channels, temperatureIntervalMillis);
+    }
+
+    /**
+     * @param guard - fault guard of the device, already configured for range and ODR
+     * @param channels - XYZ to keep temperature out of the FIFO, XYZ_TEMP to store it with every sample
+     * @param temperatureIntervalMillis - time between two temperature reads with XYZ
+     */
+    public FifoReader(FaultGuard guard, Channels channels, long temperatureIntervalMillis) {
+        this(guard.getDevice(), guard, channels, temperatureIntervalMillis);
+    }
+
+    private FifoReader(Adxl362Device adxl362, FaultGuard guard, Channels channels, long temperatureIntervalMillis) {
+        this.adxl362 = adxl362;
+        this.guard = guard;
+        this.channels = channels;
+        this.temperatureIntervalNanos = temperatureIntervalMillis * 1000000L;
+        this.decoder = new FifoDecoder(channels == Channels.XYZ_TEMP);
+    }
+
+    /**
+     * Put the FIFO in stream mode with the selected channels and start measuring.
+     * @param watermark - FIFO_SAMPLES in samples, for FIFO_WATERMARK interrupts
+     * @throws IOException
+     */
+    public void start(int watermark) throws IOException {
+        adxl362.getConfig()
+                .setFifo(FifoMode.STREAM, Math.min(watermark * channels.getCount(), FifoDecoder.CAPACITY - 1),
+                        channels == Channels.XYZ_TEMP)
+                .setMeasurement(true);
+        adxl362.flushConfig();
+        decoder.reset();
+    }
+
+    /**
+     * Drain the samples available in the FIFO, up to the capacity of the batch.
+     * @param batch - destination, overwritten
+     * @return number of samples in the batch.
+     * @throws SpiFaultException if a guarded device could not be recovered
+     * @throws IOException
+     * @throws InterruptedException if interrupted while a guarded device was recovering
+     */
+    public int read(SampleBatch batch) throws IOException, InterruptedException {
+        int max = batch.getCapacity() * channels.getCount();
+        int available;
+        if (guard != null) {
+            available = guard.readFifo(snapshot, entries, 0, max);
+        } else {
+            available = Math.min(adxl362.read(statusPlan, snapshot).getFifoEntries(), max);
+            if (available > 0) {
+                adxl362.readFifo(entries, 0, available);
+            }
+        }
+        int status = snapshot.getStatus();
+        boolean afterGap = snapshot.isAfterGap();
+        int count = decoder.decode(entries, 0, available, decoded, 0);
+        long now = System.nanoTime();
+
+        short[] xyz = batch.getXyz();
+        int stride = channels.getCount();
+        for (int i = 0; i < count; i++) {
+            xyz[i * 3] = decoded[i * stride];
+            xyz[i * 3 + 1] = decoded[i * stride + 1];
+            xyz[i * 3 + 2] = decoded[i * stride + 2];
+        }
+        if (channels == Channels.XYZ_TEMP) {
+            if (count > 0) {
+                temperature = decoded[(count - 1) * stride + 3];
+                temperatureNanos = now;
+            }
+        } else if (!temperatureRead || now - temperatureNanos >= temperatureIntervalNanos) {
+            temperature = (guard != null ? guard.read(temperaturePlan, snapshot)
+                    : adxl362.read(temperaturePlan, snapshot)).getTemp();
+            afterGap |= snapshot.isAfterGap();
+            temperatureNanos = snapshot.getTimestampNanos();
+            temperatureRead = true;
+        }
+
+        batch.count = count;
+        batch.temperature = temperature;
+        batch.temperatureNanos = temperatureNanos;
+        batch.timestampNanos = now;
+        batch.overrun = (status & STATUS_FIFO_OVERRUN) != 0;
+        batch.afterGap = afterGap;
+        return count;
+    }
+}
@@ -0,0 +1,56 @@
+package adxl362;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Output data rate, bits 2:0 of FILTER_CTL.
+ */
+public enum Odr {
+    HZ_12_5(0x00, 12.5f),
+    HZ_25(0x01, 25f),
+    HZ_50(0x02, 50f),
+    HZ_100(0x03, 100f),
+    HZ_200(0x04, 200f),
+    HZ_400(0x05, 400f);
+
+    static final int MASK = 0x07;
+
+    private final int bits;
+    private final float hertz;
+
+    Odr(int bits, float hertz) {
+        this.bits = bits;
+        this.hertz = hertz;
+    }
+
+    int getBits() {
+        return bits;
+    }
+
+    /**
+     * @return sample rate in Hz.
+     */
+    public float getHertz() {
+        return hertz;
+    }
+
+    static Odr fromBits(int filterCtl) {
+        int bits = filterCtl & MASK;
+        return bits >= HZ_400.bits ? HZ_400 : values()[bits];
+    }
+
+    /**
+     * Closest supported rate not below the requested one.
+     * @param hertz - requested sample rate in Hz
+     * @return matching ODR, HZ_400 if the request is above the maximum.
+     */
+    public static Odr atLeast(float hertz) {
+        for (Odr odr : values()) {
+            if (odr.hertz >= hertz) {
+                return odr;
+            }
+        }
+        return HZ_400;
+    }
+}
@@ -0,0 +1,43 @@
+package adxl362;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Measurement range, bits 7:6 of FILTER_CTL.
+ */
+public enum Range {
+    G2(0x00, 1),
+    G4(0x40, 2),
+    G8(0x80, 4);
+
+    static final int MASK = 0xC0;
+
+    private final int bits;
+    private final int milliGPerLsb;
+
+    Range(int bits, int milliGPerLsb) {
+        this.bits = bits;
+        this.milliGPerLsb = milliGPerLsb;
+    }
+
+    int getBits() {
+        return bits;
+    }
+
+    /**
+     * @return sensitivity of the axis data registers in mg per LSB.
+     */
+    public int getMilliGPerLsb() {
+        return milliGPerLsb;
+    }
+
+    static Range fromBits(int filterCtl) {
+        for (Range range : values()) {
+            if (range.bits == (filterCtl & MASK)) {
+                return range;
+            }
+        }
+        return G8;      // 0b11 is documented as +/-8g as well
+    }
+}
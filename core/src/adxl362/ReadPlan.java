@@ -0,0 +1,166 @@
+package adxl362;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * A precomputed set of burst reads covering a set of {@link Field}s.
+ * The requested registers are merged into the minimum number of contiguous
+ * auto-increment reads. Gaps between requested registers are read along
+ * as long as doing so has no side effect, so X, Y, Z, TEMP, STATUS and
+ * FIFO_ENTRIES all come back in a single transaction.
+ * A plan is immutable and can be executed any number of times with
+ * {@link Adxl362Device#read(ReadPlan, Snapshot)}.
+ */
+public final class ReadPlan {
+
+    private final EnumSet<Field> fields;
+    private final int[] starts;
+    private final int[] lengths;
+    private final byte[][] requests;
+
+    /**
+     * Plans the reads for the given fields.
+     * @param fields - fields to be fetched on every execution of the plan
+     */
+    public ReadPlan(Field... fields) {
+        if (fields.length == 0) {
+            throw new IllegalArgumentException("at least one field is required");
+        }
+        this.fields = EnumSet.noneOf(Field.class);
+        Collections.addAll(this.fields, fields);
+
+        boolean[] wanted = new boolean[Registers.REGISTER_COUNT];
+        for (Field field : this.fields) {
+            for (int i = 0; i < field.getWidth(); i++) {
+                wanted[field.getAddress() + i] = true;
+            }
+        }
+
+        List<int[]> bursts = new ArrayList<>();
+        int start = -1;
+        int end = -1;
+        for (int address = 0; address < wanted.length; address++) {
+            if (!wanted[address]) {
+                continue;
+            }
+            if (start >= 0 && canBridge(end + 1, address)) {
+                end = address;
+            } else {
+                if (start >= 0) {
+                    bursts.add(new int[]{start, end});
+                }
+                start = address;
+                end = address;
+            }
+        }
+        bursts.add(new int[]{start, end});
+
+        starts = new int[bursts.size()];
+        lengths = new int[bursts.size()];
+        requests = new byte[bursts.size()][];
+        for (int i = 0; i < bursts.size(); i++) {
+            starts[i] = bursts.get(i)[0];
+            lengths[i] = bursts.get(i)[1] - starts[i] + 1;
+            requests[i] = new byte[lengths[i] + 2];
+            requests[i][0] = Registers.CMD_READ;       // read instruction
+            requests[i][1] = (byte) starts[i];         // first register of the burst
+        }
+    }
+
+    /**
+     * Registers from..to (exclusive) lie between two requested registers.
+     * They can be read along only if every one of them is free of side effects.
+     */
+    private static boolean canBridge(int from, int to) {
+        for (int address = from; address < to; address++) {
+            if (!Registers.isBridgeable(address)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param field - field to look for
+     * @return true if the field is fetched by this plan.
+     */
+    public boolean contains(Field field) {
+        return fields.contains(field);
+    }
+
+    /**
+     * @return number of SPI transactions needed for one execution of this plan.
+     */
+    public int getTransactionCount() {
+        return starts.length;
+    }
+
+    /**
+     * @return total number of bytes clocked over SPI for one execution, instructions included.
+     */
+    public int getBytesPerExecution() {
+        int total = 0;
+        for (byte[] request : requests) {
+            total += request.length;
+        }
+        return total;
+    }
+
+    /**
+     * Tells whether every byte read by this plan is 0x00, or every byte is 0xFF.
+     * That is what a floating or shorted MISO line returns, a real sample never looks like it.
+     * Plans reading less than 4 registers can't be told apart from real values and never look stuck.
+     * @param registers - register image filled by this plan
+     * @return true if the frame looks stuck.
+     */
+    boolean isStuck(byte[] registers) {
+        if (getBytesPerExecution() - 2 * starts.length < 4) {
+            return false;
+        }
+        byte first = registers[starts[0]];
+        if (first != 0x00 && first != (byte) 0xFF) {
+            return false;
+        }
+        for (int i = 0; i < starts.length; i++) {
+            for (int address = starts[i]; address < starts[i] + lengths[i]; address++) {
+                if (registers[address] != first) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    int getStart(int burst) {
+        return starts[burst];
+    }
+
+    int getLength(int burst) {
+        return lengths[burst];
+    }
+
+    /**
+     * The request buffer of a burst. It only ever holds the instruction,
+     * the start address and dummy bytes, so it is shared between executions.
+     */
+    byte[] getRequest(int burst) {
+        return requests[burst];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("ReadPlan");
+        builder.append(fields);
+        for (int i = 0; i < starts.length; i++) {
+            builder.append(i == 0 ? " bursts: " : ", ")
+                    .append(String.format("0x%02X+%d", starts[i], lengths[i]));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,257 @@
+package adxl362;
+
+import java.util.Arrays;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Host side copy of the ADXL362 configuration registers (THRESH_ACT_L to SELF_TEST).
+ * Setters only touch the shadow and mark the register dirty. {@link Adxl362Device#flushConfig()}
+ * then writes every pending change with a single auto-increment write, skipping
+ * registers whose new value equals what the device already holds.
+ * {@link Adxl362Device#verifyConfig()} reads the registers back to detect drift,
+ * e.g. after a brown-out, and queues the known values for rewriting.
+ */
+public final class RegisterShadow {
+
+    /** First shadowed register. */
+    static final int FIRST = Registers.THRESH_ACT_L;
+    /** Last shadowed register. */
+    static final int LAST = Registers.SELF_TEST;
+    /** Number of shadowed registers. */
+    static final int SIZE = LAST - FIRST + 1;
+
+    /** Register values after a soft reset, THRESH_ACT_L to SELF_TEST. */
+    private static final byte[] RESET_VALUES = {
+        0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+        0x00, (byte) 0x80, 0x00, 0x00, 0x13, 0x00, 0x00
+    };
+
+    private final byte[] device = new byte[SIZE];
+    private final byte[] pending = new byte[SIZE];
+    private final boolean[] dirty = new boolean[SIZE];
+    private boolean synced;
+
+    RegisterShadow() {
+        System.arraycopy(RESET_VALUES, 0, device, 0, SIZE);
+        System.arraycopy(RESET_VALUES, 0, pending, 0, SIZE);
+    }
+
+    /**
+     * Value a register will hold once pending changes are flushed.
+     * @param address - register address, THRESH_ACT_L to SELF_TEST
+     * @return register value, 0 to 255.
+     */
+    public int get(int address) {
+        return pending[index(address)] & 0xFF;
+    }
+
+    /**
+     * Set a register.
+     * @param address - register address, THRESH_ACT_L to SELF_TEST
+     * @param value - new register value
+     * @return this shadow, for chaining.
+     */
+    public RegisterShadow set(int address, int value) {
+        int i = index(address);
+        pending[i] = (byte) value;
+        dirty[i] = true;
+        return this;
+    }
+
+    /**
+     * Change some bits of a register, without reading it over SPI.
+     * @param address - register address, THRESH_ACT_L to SELF_TEST
+     * @param mask - bits to be changed
+     * @param bits - new value of the masked bits
+     * @return this shadow, for chaining.
+     */
+    public RegisterShadow update(int address, int mask, int bits) {
+        return set(address, (get(address) & ~mask) | (bits & mask));
+    }
+
+    /**
+     * @param range - measurement range
+     * @return this shadow, for chaining.
+     */
+    public RegisterShadow setRange(Range range) {
+        return update(Registers.FILTER_CTL, Range.MASK, range.getBits());
+    }
+
+    /**
+     * @return measurement range once pending changes are flushed.
+     */
+    public Range getRange() {
+        return Range.fromBits(get(Registers.FILTER_CTL));
+    }
+
+    /**
+     * @param odr - output data rate
+     * @return this shadow, for chaining.
+     */
+    public RegisterShadow setOdr(Odr odr) {
+        return update(Registers.FILTER_CTL, Odr.MASK, odr.getBits());
+    }
+
+    /**
+     * @return output data rate once pending changes are flushed.
+     */
+    public Odr getOdr() {
+        return Odr.fromBits(get(Registers.FILTER_CTL));
+    }
+
+    /**
+     * @param threshold - activity threshold in LSB, 11 bits
+     * @param time - number of consecutive samples above threshold, 0 to 255
+     * @return this shadow, for chaining.
+     */
+    public RegisterShadow setActivity(int threshold, int time) {
+        set(Registers.THRESH_ACT_L, threshold & 0xFF);
+        set(Registers.THRESH_ACT_H, (threshold >> 8) & 0x07);
+        return set(Registers.TIME_ACT, time);
+    }
+
+    /**
+     * @param threshold - inactivity threshold in LSB, 11 bits
+     * @param time - number of consecutive samples below threshold, 16 bits
+     * @return this shadow, for chaining.
+     */
+    public RegisterShadow setInactivity(int threshold, int time) {
+        set(Registers.THRESH_INACT_L, threshold & 0xFF);
+        set(Registers.THRESH_INACT_H, (threshold >> 8) & 0x07);
+        set(Registers.TIME_INACT_L, time & 0xFF);
+        return set(Registers.TIME_INACT_H, (time >> 8) & 0xFF);
+    }
+
+    /**
+     * @param mode - FIFO operating mode
+     * @param samples - FIFO_SAMPLES, 0 to 511 entries: the watermark, or the number of
+     *                entries kept before the trigger in triggered mode
+     * @param temperature - true to store a temperature entry after each X, Y, Z
+     * @return this shadow, for chaining.
+     */
+    public RegisterShadow setFifo(FifoMode mode, int samples, boolean temperature) {
+        if (samples < 0 || samples >= FifoDecoder.CAPACITY) {
+            throw new IllegalArgumentException("FIFO_SAMPLES must be 0 to 511");
+        }
+        set(Registers.FIFO_SAMPLES, samples & 0xFF);
+        return set(Registers.FIFO_CONTROL, (samples > 0xFF ? 0x08 : 0x00)     // AH, bit 8 of FIFO_SAMPLES
+                | (temperature ? 0x04 : 0x00)                                  // FIFO_TEMP
+                | mode.getBits());
+    }
+
+    /**
+     * @param measure - true for measurement mode, false for standby
+     * @return this shadow, for chaining.
+     */
+    public RegisterShadow setMeasurement(boolean measure) {
+        return update(Registers.POWER_CTL, 0x03, measure ? 0x02 : 0x00);
+    }
+
+    /**
+     * @return true if some register will change on the next flush.
+     */
+    public boolean isDirty() {
+        return firstPending() >= 0;
+    }
+
+    /**
+     * @return true once the device registers have been read into the shadow
+     * or reset to known values.
+     */
+    public boolean isSynced() {
+        return synced;
+    }
+
+    /**
+     * Forget what the device holds, so the next flush reads it back first.
+     * Pending changes are kept.
+     */
+    public void invalidate() {
+        synced = false;
+    }
+
+    /**
+     * Index of the first register whose pending value differs from the device, -1 if none.
+     * Registers set back to the device value are no longer dirty.
+     */
+    int firstPending() {
+        for (int i = 0; i < SIZE; i++) {
+            if (dirty[i] && pending[i] != device[i]) {
+                return i;
+            }
+            dirty[i] = false;
+        }
+        return -1;
+    }
+
+    /**
+     * Index of the last register whose pending value differs from the device, -1 if none.
+     */
+    int lastPending() {
+        for (int i = SIZE - 1; i >= 0; i--) {
+            if (dirty[i] && pending[i] != device[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Copy pending values first..last (indexes) into an SPI write buffer.
+     */
+    void copyPending(int first, int last, byte[] buffer, int offset) {
+        System.arraycopy(pending, first, buffer, offset, last - first + 1);
+    }
+
+    /**
+     * Pending values first..last (indexes) were written to the device.
+     */
+    void committed(int first, int last) {
+        for (int i = first; i <= last; i++) {
+            device[i] = pending[i];
+            dirty[i] = false;
+        }
+    }
+
+    /**
+     * Registers read from the device. Registers without a pending change take the device value,
+     * the others stay dirty and are rewritten on the next flush.
+     * @param registers - register image indexed by address
+     * @return number of registers that differed from the last known device state.
+     */
+    int load(byte[] registers) {
+        int drift = 0;
+        for (int i = 0; i < SIZE; i++) {
+            byte actual = registers[FIRST + i];
+            if (synced && actual != device[i]) {
+                drift++;
+                dirty[i] = true;        // restore what we wrote last
+            }
+            device[i] = actual;
+            if (!dirty[i]) {
+                pending[i] = actual;
+            }
+        }
+        synced = true;
+        return drift;
+    }
+
+    /**
+     * The device was soft reset, every register is back to its default.
+     */
+    void reset() {
+        System.arraycopy(RESET_VALUES, 0, device, 0, SIZE);
+        System.arraycopy(RESET_VALUES, 0, pending, 0, SIZE);
+        Arrays.fill(dirty, false);
+        synced = true;
+    }
+
+    private static int index(int address) {
+        if (address < FIRST || address > LAST) {
+            throw new IllegalArgumentException(String.format("0x%02X is not a configuration register", address));
+        }
+        return address - FIRST;
+    }
+}
@@ -0,0 +1,83 @@
+package adxl362;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Register map and SPI instructions of the ADXL362.
+ * Addresses are taken from the ADXL362 datasheet (Rev. F, Table 11).
+ */
+public final class Registers {
+
+    /** Write register instruction. */
+    public static final int CMD_WRITE = 0x0A;
+    /** Read register instruction. */
+    public static final int CMD_READ = 0x0B;
+    /** Read FIFO instruction. */
+    public static final int CMD_READ_FIFO = 0x0D;
+
+    public static final int DEVID_AD = 0x00;
+    public static final int DEVID_MST = 0x01;
+    public static final int PARTID = 0x02;
+    public static final int REVID = 0x03;
+    public static final int XDATA = 0x08;
+    public static final int YDATA = 0x09;
+    public static final int ZDATA = 0x0A;
+    public static final int STATUS = 0x0B;
+    public static final int FIFO_ENTRIES_L = 0x0C;
+    public static final int FIFO_ENTRIES_H = 0x0D;
+    public static final int XDATA_L = 0x0E;
+    public static final int XDATA_H = 0x0F;
+    public static final int YDATA_L = 0x10;
+    public static final int YDATA_H = 0x11;
+    public static final int ZDATA_L = 0x12;
+    public static final int ZDATA_H = 0x13;
+    public static final int TEMP_L = 0x14;
+    public static final int TEMP_H = 0x15;
+    public static final int SOFT_RESET = 0x1F;
+    public static final int THRESH_ACT_L = 0x20;
+    public static final int THRESH_ACT_H = 0x21;
+    public static final int TIME_ACT = 0x22;
+    public static final int THRESH_INACT_L = 0x23;
+    public static final int THRESH_INACT_H = 0x24;
+    public static final int TIME_INACT_L = 0x25;
+    public static final int TIME_INACT_H = 0x26;
+    public static final int ACT_INACT_CTL = 0x27;
+    public static final int FIFO_CONTROL = 0x28;
+    public static final int FIFO_SAMPLES = 0x29;
+    public static final int INTMAP1 = 0x2A;
+    public static final int INTMAP2 = 0x2B;
+    public static final int FILTER_CTL = 0x2C;
+    public static final int POWER_CTL = 0x2D;
+    public static final int SELF_TEST = 0x2E;
+
+    /** Number of addressable registers, 0x00 to SELF_TEST. */
+    public static final int REGISTER_COUNT = SELF_TEST + 1;
+
+    /** Fixed value of DEVID_AD. */
+    public static final int DEVID_AD_VALUE = 0xAD;
+    /** Fixed value of DEVID_MST. */
+    public static final int DEVID_MST_VALUE = 0x1D;
+    /** Fixed value of PARTID. */
+    public static final int PARTID_VALUE = 0xF2;
+    /** Key written to SOFT_RESET to reset the device. */
+    public static final int SOFT_RESET_KEY = 0x52;
+
+    private Registers() {
+    }
+
+    /**
+     * Tells whether a register may be read as part of a burst
+     * even though the caller did not ask for it.
+     * Reserved registers are never touched and STATUS is excluded
+     * because reading it clears the activity and inactivity interrupts.
+     * @param address - register address
+     * @return true if reading the register has no side effects.
+     */
+    static boolean isBridgeable(int address) {
+        return (address >= DEVID_AD && address <= REVID)
+                || (address >= XDATA && address <= ZDATA)
+                || (address >= FIFO_ENTRIES_L && address <= TEMP_H)
+                || (address >= THRESH_ACT_L && address <= SELF_TEST);
+    }
+}
@@ -0,0 +1,82 @@
+package adxl362;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * A batch of X, Y, Z samples drained from the FIFO, with the latest temperature attached.
+ * Batches are meant to be reused, {@link FifoReader#read(SampleBatch)} overwrites them.
+ */
+public final class SampleBatch {
+
+    private final short[] xyz;
+    int count;
+    int temperature;
+    long temperatureNanos;
+    long timestampNanos;
+    boolean overrun;
+    boolean afterGap;
+
+    /**
+     * @param capacity - samples the batch can hold, 170 covers a full FIFO
+     */
+    public SampleBatch(int capacity) {
+        xyz = new short[capacity * 3];
+    }
+
+    /**
+     * @return interleaved X, Y, Z values, 3 * {@link #getCount()} of them are valid.
+     */
+    public short[] getXyz() {
+        return xyz;
+    }
+
+    /**
+     * @return number of samples in the batch.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return samples the batch can hold.
+     */
+    public int getCapacity() {
+        return xyz.length / 3;
+    }
+
+    /**
+     * @return latest temperature value, raw.
+     */
+    public int getTemperature() {
+        return temperature;
+    }
+
+    /**
+     * @return {@link System#nanoTime()} when the temperature was read.
+     */
+    public long getTemperatureNanos() {
+        return temperatureNanos;
+    }
+
+    /**
+     * @return {@link System#nanoTime()} when the last sample of the batch was read.
+     */
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    /**
+     * @return true if the FIFO overflowed before this batch, samples were lost.
+     */
+    public boolean isOverrun() {
+        return overrun;
+    }
+
+    /**
+     * @return true if samples were lost to an SPI fault before this batch, see {@link FaultGuard}.
+     */
+    public boolean isAfterGap() {
+        return afterGap;
+    }
+}
@@ -0,0 +1,114 @@
+package adxl362;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Register values captured by one execution of a {@link ReadPlan}.
+ * All fields that were read by the same burst belong to the same sample period.
+ * A snapshot is meant to be reused: each {@link Adxl362Device#read(ReadPlan, Snapshot)}
+ * overwrites it in place, so keep your own copy of values that must outlive the next read.
+ */
+public final class Snapshot {
+
+    private final byte[] registers = new byte[Registers.REGISTER_COUNT];
+    private ReadPlan plan;
+    private long timestampNanos;
+    private boolean afterGap;
+
+    /**
+     * Value of a field from the last read.
+     * @param field - field to be decoded, must be part of the plan that filled this snapshot
+     * @return decoded value of the field.
+     */
+    public int get(Field field) {
+        if (plan == null || !plan.contains(field)) {
+            throw new IllegalStateException(field + " was not read into this snapshot");
+        }
+        return field.decode(registers);
+    }
+
+    /**
+     * @return X axis value as integer.
+     */
+    public int getX() {
+        return get(Field.X);
+    }
+
+    /**
+     * @return Y axis value as integer.
+     */
+    public int getY() {
+        return get(Field.Y);
+    }
+
+    /**
+     * @return Z axis value as integer.
+     */
+    public int getZ() {
+        return get(Field.Z);
+    }
+
+    /**
+     * @return internal system temperature as integer.
+     */
+    public int getTemp() {
+        return get(Field.TEMP);
+    }
+
+    /**
+     * @return STATUS register value.
+     */
+    public int getStatus() {
+        return get(Field.STATUS);
+    }
+
+    /**
+     * @return number of valid entries in the FIFO, 0 to 1023. Only 0 to 512 are possible,
+     * anything larger comes from a broken link.
+     */
+    public int getFifoEntries() {
+        return get(Field.FIFO_ENTRIES) & 0x3FF;        // FIFO_ENTRIES_H bits 7:2 are unused
+    }
+
+    /**
+     * @return value of {@link System#nanoTime()} taken right after the last read completed.
+     */
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    /**
+     * A snapshot read by {@link FaultGuard} right after it recovered from an SPI fault.
+     * Samples between the previous snapshot and this one were lost.
+     * @return true if this snapshot follows a gap in the stream.
+     */
+    public boolean isAfterGap() {
+        return afterGap;
+    }
+
+    /**
+     * @return plan that filled this snapshot, or null if it was never filled.
+     */
+    public ReadPlan getPlan() {
+        return plan;
+    }
+
+    byte[] getRegisters() {
+        return registers;
+    }
+
+    void fill(ReadPlan plan, int burst, byte[] response) {
+        System.arraycopy(response, 2, registers, plan.getStart(burst), plan.getLength(burst));
+    }
+
+    void complete(ReadPlan plan, long timestampNanos) {
+        this.plan = plan;
+        this.timestampNanos = timestampNanos;
+        this.afterGap = false;
+    }
+
+    void markAfterGap() {
+        afterGap = true;
+    }
+}
@@ -0,0 +1,23 @@
+package adxl362;
+
+import java.io.IOException;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Thrown when the SPI link to the ADXL362 returns data that can't be trusted
+ * and the device could not be recovered.
+ */
+public class SpiFaultException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SpiFaultException(String message) {
+        super(message);
+    }
+
+    public SpiFaultException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,24 @@
+package adxl362;
+
+import java.io.IOException;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * The only thing {@link Adxl362Device} needs from a platform: one full duplex SPI transfer
+ * with chip select held low for its whole length. Adapters exist for pi4j ({@code adxl362.Pi4jTransport})
+ * and Android Things ({@code vaf.vishal.adxl362.ThingsSpiTransport}).
+ */
+public interface SpiTransport {
+
+    /**
+     * Shift out {@code length} bytes while shifting the same number in.
+     * Both buffers are owned by the caller and reused, implementations must not keep them.
+     * @param tx - bytes sent, instruction and address first
+     * @param rx - receives the bytes read, at the same indices
+     * @param length - number of bytes transferred
+     * @throws IOException
+     */
+    void transfer(byte[] tx, byte[] rx, int length) throws IOException;
+}
@@ -0,0 +1,163 @@
+package adxl362;
+
+import java.io.IOException;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Conformance and throughput check of an {@link SpiTransport}, the same on every backend.
+ * It checks that the device answers with its IDs, that a burst over the configuration
+ * registers matches register by register reads, that configuration writes read back
+ * (on THRESH_ACT_L and TIME_ACT, restored afterwards) and that the entries waiting in the
+ * FIFO decode in X, Y, Z order. Then it times the hot read paths: the STATUS + X, Y, Z plan, the allocation
+ * free X, Y, Z burst and a full FIFO read.
+ * Run it on an idle device, not while another thread samples it.
+ */
+public final class TransportConformance {
+
+    private static final int[] PATTERNS = {0x55, 0xAA, 0x00, 0xFF};
+
+    private TransportConformance() {
+    }
+
+    /**
+     * Run all checks, then the throughput measurements.
+     * @param transport - SPI link to an ADXL362
+     * @param rounds - executions of each timed read, and of each write/read-back check / 10
+     * @return the outcome, see {@link Report#isPassed()}.
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    public static Report run(SpiTransport transport, int rounds) throws IOException, InterruptedException {
+        Adxl362Device device = new Adxl362Device(transport);
+        Report report = new Report();
+
+        Snapshot snapshot = new Snapshot();
+        device.read(new ReadPlan(Field.DEVID_AD, Field.DEVID_MST, Field.PARTID), snapshot);
+        report.check("device ID", snapshot.get(Field.DEVID_AD) == Registers.DEVID_AD_VALUE
+                && snapshot.get(Field.DEVID_MST) == Registers.DEVID_MST_VALUE
+                && snapshot.get(Field.PARTID) == Registers.PARTID_VALUE);
+
+        // one burst over the configuration registers against one read per register
+        device.verifyConfig();
+        RegisterShadow config = device.getConfig();
+        boolean consistent = true;
+        for (Field field : Field.values()) {
+            if (field.getAddress() >= RegisterShadow.FIRST && field.getAddress() <= RegisterShadow.LAST) {
+                device.read(new ReadPlan(field), snapshot);
+                for (int i = 0; i < field.getWidth(); i++) {
+                    consistent &= (snapshot.getRegisters()[field.getAddress() + i] & 0xFF)
+                            == config.get(field.getAddress() + i);
+                }
+            }
+        }
+        report.check("burst matches single reads", consistent);
+
+        int threshold = config.get(Registers.THRESH_ACT_L);
+        int time = config.get(Registers.TIME_ACT);
+        int mismatches = 0;
+        for (int i = 0; i < Math.max(1, rounds / 10); i++) {
+            int pattern = PATTERNS[i % PATTERNS.length];
+            config.set(Registers.THRESH_ACT_L, pattern).set(Registers.TIME_ACT, ~pattern & 0xFF);
+            device.flushConfig();
+            mismatches += device.verifyConfig();
+        }
+        config.set(Registers.THRESH_ACT_L, threshold).set(Registers.TIME_ACT, time);
+        device.flushConfig();
+        report.check("configuration write read-back", mismatches == 0);
+
+        ReadPlan entriesPlan = new ReadPlan(Field.FIFO_ENTRIES);
+        short[] entries = new short[FifoDecoder.CAPACITY];
+        int available = device.read(entriesPlan, snapshot).getFifoEntries();
+        FifoDecoder decoder = new FifoDecoder((config.get(Registers.FIFO_CONTROL) & 0x04) != 0);
+        if (available > 0 && available <= FifoDecoder.CAPACITY) {
+            device.readFifo(entries, 0, available);
+            decoder.decode(entries, 0, available, new short[available], 0);
+        }
+        // only the entries before the first X may be skipped, if the FIFO was read mid-sample
+        report.check("FIFO entries", available <= FifoDecoder.CAPACITY && decoder.getSkipped() < decoder.getChannels());
+
+        ReadPlan samplePlan = new ReadPlan(Field.STATUS, Field.X, Field.Y, Field.Z);
+        short[] xyz = new short[3];
+        for (int pass = 0; pass < 2; pass++) {      // the first pass warms up the JIT
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                device.read(samplePlan, snapshot);
+            }
+            long planNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                device.readXYZData(xyz, 0);
+            }
+            long burstNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                device.readFifo(entries, 0, FifoDecoder.CAPACITY);
+            }
+            long fifoNanos = System.nanoTime() - start;
+            report.planRate = rounds / (planNanos / 1e9);
+            report.burstRate = rounds / (burstNanos / 1e9);
+            report.fifoBytesPerSecond = rounds * (FifoDecoder.CAPACITY * 2 + 1) / (fifoNanos / 1e9);
+        }
+        report.planBytes = samplePlan.getBytesPerExecution();
+        return report;
+    }
+
+    /**
+     * Outcome of a conformance run.
+     */
+    public static final class Report {
+
+        private final StringBuilder checks = new StringBuilder();
+        private int failures;
+        double planRate;
+        int planBytes;
+        double burstRate;
+        double fifoBytesPerSecond;
+
+        private void check(String name, boolean passed) {
+            checks.append(String.format("%-30s %s%n", name, passed ? "ok" : "FAILED"));
+            if (!passed) {
+                failures++;
+            }
+        }
+
+        /**
+         * @return true if every check passed.
+         */
+        public boolean isPassed() {
+            return failures == 0;
+        }
+
+        /**
+         * @return STATUS + X, Y, Z plan executions per second.
+         */
+        public double getPlanRate() {
+            return planRate;
+        }
+
+        /**
+         * @return X, Y, Z bursts per second, see {@link Adxl362Device#readXYZData(short[], int)}.
+         */
+        public double getBurstRate() {
+            return burstRate;
+        }
+
+        /**
+         * @return bytes per second transferred by full FIFO reads.
+         */
+        public double getFifoBytesPerSecond() {
+            return fifoBytesPerSecond;
+        }
+
+        @Override
+        public String toString() {
+            return checks.toString()
+                    + String.format("%-30s %.0f reads/s%n", "STATUS+XYZ plan (" + planBytes + " bytes)", planRate)
+                    + String.format("%-30s %.0f reads/s%n", "XYZ burst (8 bytes)", burstRate)
+                    + String.format("%-30s %.1f KB/s", "FIFO read (" + (FifoDecoder.CAPACITY * 2 + 1) + " bytes)",
+                            fifoBytesPerSecond / 1024);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package adxl362;
+
+import java.io.IOException;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Oscilloscope style capture of the samples around an activity event, using the
+ * triggered mode of the ADXL362 FIFO.
+ * Once armed, the device keeps the last {@code preTrigger} samples in its FIFO by itself and
+ * maps the activity event to INT1, so the host has nothing to do until the event.
+ * After the event the FIFO fills with the following samples, which are drained until
+ * {@code postTrigger} samples are collected. Each event is returned as one contiguous
+ * {@link Capture}. Call {@link #collect(long)} from an INT1 edge handler, or let
+ * {@link #await(long, long)} poll FIFO_ENTRIES at a slow pace.
+ * There is no {@link FaultGuard} handling: a retry can't bring back a lost event. A broken
+ * link shows as a {@link SpiFaultException}, after which the capture is re-armed.
+ */
+public class TriggerCapture {
+
+    /** ACT_INACT_CTL: activity detection enabled, referenced to the level at arming. */
+    private static final int ACT_ENABLE_REFERENCED = 0x03;
+    /** INTMAP1: activity on INT1. */
+    private static final int INTMAP_ACT = 0x10;
+
+    private final Adxl362Device adxl362;
+    private final int preTrigger;
+    private final int postTrigger;
+    private final FifoDecoder decoder = new FifoDecoder(false);
+    private final ReadPlan entriesPlan = new ReadPlan(Field.FIFO_ENTRIES);
+    private final Snapshot entriesSnapshot = new Snapshot();
+    private final short[] entries = new short[FifoDecoder.CAPACITY];
+
+    private long armedNanos;
+
+    /**
+     * @param adxl362 - device, already configured for range and ODR
+     * @param preTrigger - samples kept before the event, 1 to 170
+     * @param postTrigger - samples collected after the event, at least 1
+     */
+    public TriggerCapture(Adxl362Device adxl362, int preTrigger, int postTrigger) {
+        if (preTrigger < 1 || preTrigger > (FifoDecoder.CAPACITY - 1) / 3) {
+            throw new IllegalArgumentException("pre-trigger window must be 1 to 170 samples");
+        }
+        if (postTrigger < 1) {
+            throw new IllegalArgumentException("post-trigger length must be at least 1 sample");
+        }
+        this.adxl362 = adxl362;
+        this.preTrigger = preTrigger;
+        this.postTrigger = postTrigger;
+    }
+
+    /**
+     * Configure the activity trigger and arm the FIFO, with a single configuration write.
+     * Must be called again after each capture.
+     * @param threshold - activity threshold in LSB, relative to the acceleration at arming time
+     * @param time - number of consecutive samples above threshold
+     * @throws IOException
+     */
+    public void arm(int threshold, int time) throws IOException {
+        RegisterShadow config = adxl362.getConfig();
+        // the trigger only re-arms when the FIFO leaves triggered mode
+        if ((config.get(Registers.FIFO_CONTROL) & FifoMode.MASK) == FifoMode.TRIGGERED.getBits()) {
+            config.setFifo(FifoMode.DISABLED, 0, false);
+            adxl362.flushConfig();
+        }
+        config.setActivity(threshold, time)
+                .update(Registers.ACT_INACT_CTL, ACT_ENABLE_REFERENCED, ACT_ENABLE_REFERENCED)
+                .update(Registers.INTMAP1, INTMAP_ACT, INTMAP_ACT)
+                .setFifo(FifoMode.TRIGGERED, preTrigger * 3, false)
+                .setMeasurement(true);
+        adxl362.flushConfig();
+        decoder.reset();
+        armedNanos = System.nanoTime();
+    }
+
+    /**
+     * Wait for the trigger by polling FIFO_ENTRIES, then collect the capture.
+     * Before the event the FIFO never holds more than the pre-trigger window.
+     * @param pollMillis - delay between two polls
+     * @param timeoutMillis - give up after this time, 0 to wait forever
+     * @return the capture, or null on timeout.
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    public Capture await(long pollMillis, long timeoutMillis) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (adxl362.read(entriesPlan, entriesSnapshot).getFifoEntries() <= preTrigger * 3) {
+            if (timeoutMillis > 0 && System.currentTimeMillis() > deadline) {
+                return null;
+            }
+            Thread.sleep(pollMillis);
+        }
+        return collect(timeoutMillis);
+    }
+
+    /**
+     * Drain the FIFO once the trigger fired, until the post-trigger samples are collected.
+     * @param timeoutMillis - give up after this time, 0 to wait forever
+     * @return the capture, possibly shorter than requested on timeout.
+     * @throws SpiFaultException if FIFO_ENTRIES reads more than the FIFO can hold
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    public Capture collect(long timeoutMillis) throws IOException, InterruptedException {
+        long triggered = System.nanoTime();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        float hertz = adxl362.getConfig().getOdr().getHertz();
+        long sleepMillis = Math.max(1, (long) (1000 / hertz) * 16);
+        // an event soon after arming finds the pre-trigger window only partly filled
+        long sinceArmed = (long) ((triggered - armedNanos) * 1e-9 * hertz);
+        int window = (int) Math.min(preTrigger, sinceArmed);
+        short[] samples = new short[(preTrigger + postTrigger + FifoDecoder.CAPACITY / 3) * 3];
+        int count = 0;
+        long skippedBefore = decoder.getSkipped();
+        int triggerIndex = -1;
+        while (count < preTrigger + postTrigger) {
+            int available = adxl362.read(entriesPlan, entriesSnapshot).getFifoEntries();
+            if (available > FifoDecoder.CAPACITY) {
+                throw new SpiFaultException("FIFO_ENTRIES reads " + available + ", the FIFO holds " + FifoDecoder.CAPACITY);
+            }
+            if (available == 0) {
+                if (timeoutMillis > 0 && System.currentTimeMillis() > deadline) {
+                    break;
+                }
+                Thread.sleep(sleepMillis);
+                continue;
+            }
+            // room left in samples, keeping space for the sample the decoder may be completing
+            available = Math.min(available, samples.length - count * 3 - 2);
+            adxl362.readFifo(entries, 0, available);
+            count += decoder.decode(entries, 0, available, samples, count * 3);
+            if (triggerIndex < 0) {
+                // the FIFO held the pre-trigger window at the event, less what alignment dropped
+                triggerIndex = (int) ((window * 3 - (decoder.getSkipped() - skippedBefore)) / 3);
+            }
+        }
+        return new Capture(samples, Math.min(count, preTrigger + postTrigger), Math.max(0, triggerIndex), triggered);
+    }
+
+    /**
+     * Samples around one trigger event.
+     */
+    public static final class Capture {
+
+        private final short[] samples;
+        private final int count;
+        private final int triggerIndex;
+        private final long timestampNanos;
+
+        Capture(short[] samples, int count, int triggerIndex, long timestampNanos) {
+            this.samples = samples;
+            this.count = count;
+            this.triggerIndex = triggerIndex;
+            this.timestampNanos = timestampNanos;
+        }
+
+        /**
+         * @return interleaved X, Y, Z values, 3 * {@link #getCount()} of them are valid.
+         */
+        public short[] getSamples() {
+            return samples;
+        }
+
+        /**
+         * @return number of samples in the capture.
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * @return index of the first sample after the event. When the event came less than
+         * a pre-trigger window after arming, the index is estimated from the time between
+         * arming and the host noticing the trigger, and may be late by that latency.
+         */
+        public int getTriggerIndex() {
+            return triggerIndex;
+        }
+
+        /**
+         * @return {@link System#nanoTime()} when the trigger was noticed by the host.
+         */
+        public long getTimestampNanos() {
+            return timestampNanos;
+        }
+    }
+}
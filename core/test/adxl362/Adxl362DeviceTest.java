@@ -0,0 +1,80 @@
+package adxl362;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Read paths of {@link Adxl362Device}, alone and from several threads at once.
+ */
+public class Adxl362DeviceTest {
+
+    private final SimulatedTransport spi = new SimulatedTransport();
+    private final Adxl362Device device = new Adxl362Device(spi);
+
+    @Test
+    public void readsEveryAxisOnAllPaths() throws Exception {
+        spi.setSample(-300, 400, 1000, 350);
+        assertEquals(-300, device.readXData());
+        assertEquals(400, device.readYData());
+        assertEquals(1000, device.readZData());
+        assertEquals(350, device.readTempData());
+        assertArrayEquals(new int[]{-300, 400, 1000}, device.readXYZData());
+        assertArrayEquals(new int[]{-300, 400, 1000, 350}, device.readXYZTempData());
+        short[] xyz = new short[4];
+        device.readXYZData(xyz, 1);
+        assertArrayEquals(new short[]{0, -300, 400, 1000}, xyz);
+        assertEquals(8, spi.lastRequest.length);
+    }
+
+    @Test
+    public void concurrentReadersNeverMixTransfers() throws Exception {
+        spi.setSample(1, 2, 3, 4);
+        final Adxl362Device device = new Adxl362Device(new SpiTransport() {
+            @Override
+            public void transfer(byte[] tx, byte[] rx, int length) throws IOException {
+                Thread.yield();             // widen the window between preparing and decoding a transfer
+                spi.transfer(tx, rx, length);
+            }
+        });
+        final AtomicInteger errors = new AtomicInteger();
+        Thread sampler = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                short[] xyz = new short[3];
+                try {
+                    for (int i = 0; i < 20000; i++) {
+                        device.readXYZData(xyz, 0);
+                        if (xyz[0] != 1 || xyz[1] != 2 || xyz[2] != 3) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                }
+            }
+        });
+        sampler.start();
+        ReadPlan plan = new ReadPlan(Field.Z, Field.TEMP);
+        Snapshot snapshot = new Snapshot();
+        for (int i = 0; i < 20000; i++) {
+            if (device.readTempData() != 4 || device.readXData() != 1
+                    || device.read(plan, snapshot).getZ() != 3 || snapshot.getTemp() != 4) {
+                errors.incrementAndGet();
+            }
+        }
+        sampler.join();
+        assertEquals(0, errors.get());
+    }
+
+    @Test(expected = SpiFaultException.class)
+    public void rejectsMoreFifoEntriesThanTheFifoHolds() throws Exception {
+        device.readFifo(new short[1024], 0, 1023);
+    }
+}
@@ -0,0 +1,114 @@
+package adxl362;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Fault detection, recovery and gap marking of {@link FaultGuard}.
+ */
+public class FaultGuardTest {
+
+    private final SimulatedTransport spi = new SimulatedTransport();
+    private final Adxl362Device device = new Adxl362Device(spi);
+    private final FaultGuard guard = new FaultGuard(device).setRetries(3, 1, 1);
+    private final ReadPlan plan = new ReadPlan(Field.STATUS, Field.X, Field.Y, Field.Z);
+    private final Snapshot snapshot = new Snapshot();
+
+    @Test
+    public void recoversFromAStuckFrame() throws Exception {
+        spi.setSample(10, 20, 30, 350);
+        spi.deadTransfers = 1;
+        guard.read(plan, snapshot);
+        assertEquals(10, snapshot.getX());
+        assertTrue(snapshot.isAfterGap());
+        assertEquals(1, guard.getFaults());
+        assertEquals(1, guard.getRecoveries());
+
+        guard.read(plan, snapshot);
+        assertFalse(snapshot.isAfterGap());
+    }
+
+    @Test
+    public void recoversFromSpiErrors() throws Exception {
+        spi.setSample(10, 20, 30, 350);
+        spi.failingTransfers = 2;
+        guard.read(plan, snapshot);
+        assertEquals(30, snapshot.getZ());
+        assertTrue(snapshot.isAfterGap());
+    }
+
+    @Test
+    public void marksTheGapAfterAnUnrecoveredFault() throws Exception {
+        spi.deadTransfers = -1;
+        try {
+            guard.read(plan, snapshot);
+            fail("dead bus not reported");
+        } catch (SpiFaultException e) {
+            // expected
+        }
+        spi.deadTransfers = 0;
+        spi.setSample(10, 20, 30, 350);
+        guard.read(plan, snapshot);
+        assertTrue(snapshot.isAfterGap());
+        guard.read(plan, snapshot);
+        assertFalse(snapshot.isAfterGap());
+    }
+
+    @Test
+    public void readsTheFifoThroughTheGuard() throws Exception {
+        spi.pushFifo(SimulatedTransport.entry(FifoDecoder.CHANNEL_X, 1),
+                SimulatedTransport.entry(FifoDecoder.CHANNEL_Y, 2),
+                SimulatedTransport.entry(FifoDecoder.CHANNEL_Z, 3));
+        short[] entries = new short[FifoDecoder.CAPACITY];
+        assertEquals(2, guard.readFifo(snapshot, entries, 0, 2));
+        assertEquals(2, FifoDecoder.valueOf(entries[1]));
+        assertFalse(snapshot.isAfterGap());
+        assertEquals(1, guard.readFifo(snapshot, entries, 0, 2));
+        assertEquals(3, FifoDecoder.valueOf(entries[0]));
+    }
+
+    @Test
+    public void recoversFromABrokenFifoRead() throws Exception {
+        spi.pushFifo(SimulatedTransport.entry(FifoDecoder.CHANNEL_X, 1),
+                SimulatedTransport.entry(FifoDecoder.CHANNEL_Y, 2),
+                SimulatedTransport.entry(FifoDecoder.CHANNEL_Z, 3));
+        short[] entries = new short[FifoDecoder.CAPACITY];
+        spi.deadTransfers = 1;          // FIFO_ENTRIES reads 0x3FF
+        assertEquals(0, guard.readFifo(snapshot, entries, 0, entries.length));
+        assertTrue(snapshot.isAfterGap());
+        assertEquals(1, guard.getFaults());
+        assertEquals(1, guard.getRecoveries());
+        assertEquals(3, guard.readFifo(snapshot, entries, 0, entries.length));
+        assertFalse(snapshot.isAfterGap());
+    }
+
+    @Test
+    public void detectsAStuckFifoBurst() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            spi.pushFifo(0xFFFF);
+        }
+        short[] entries = new short[FifoDecoder.CAPACITY];
+        assertEquals(0, guard.readFifo(snapshot, entries, 0, entries.length));
+        assertTrue(snapshot.isAfterGap());
+        assertEquals(1, guard.getFaults());
+    }
+
+    @Test
+    public void restoresTheConfigurationAfterABrownOut() throws Exception {
+        device.getConfig().setRange(Range.G4).setOdr(Odr.HZ_200).setMeasurement(true);
+        device.flushConfig();
+        guard.setCheckInterval(1);
+        spi.softReset();
+        spi.setSample(10, 20, 30, 350);
+
+        guard.read(plan, snapshot);
+        assertTrue(snapshot.isAfterGap());
+        assertEquals(1, guard.getReconfigurations());
+        assertEquals(0, device.verifyConfig());
+        assertEquals(0x02, spi.registers[Registers.POWER_CTL]);
+    }
+}
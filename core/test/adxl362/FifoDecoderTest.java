@@ -0,0 +1,76 @@
+package adxl362;
+
+import org.junit.Test;
+
+import static adxl362.SimulatedTransport.entry;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * {@link FifoDecoder} entry decoding and resynchronisation, and FIFO reads through {@link Adxl362Device}.
+ */
+public class FifoDecoderTest {
+
+    @Test
+    public void decodesChannelAndSignedValue() {
+        int entry = entry(FifoDecoder.CHANNEL_Y, -5);
+        assertEquals(FifoDecoder.CHANNEL_Y, FifoDecoder.channelOf(entry));
+        assertEquals(-5, FifoDecoder.valueOf(entry));
+        assertEquals(2047, FifoDecoder.valueOf(entry(FifoDecoder.CHANNEL_X, 2047)));
+    }
+
+    @Test
+    public void resyncsOnX() {
+        short[] entries = entries(
+                entry(FifoDecoder.CHANNEL_Y, 9), entry(FifoDecoder.CHANNEL_Z, 9),      // tail of a sample
+                entry(FifoDecoder.CHANNEL_X, 1), entry(FifoDecoder.CHANNEL_Y, 2), entry(FifoDecoder.CHANNEL_Z, 3),
+                entry(FifoDecoder.CHANNEL_X, 4), entry(FifoDecoder.CHANNEL_Z, 6),      // Y lost
+                entry(FifoDecoder.CHANNEL_X, 7), entry(FifoDecoder.CHANNEL_Y, 8), entry(FifoDecoder.CHANNEL_Z, 9));
+        FifoDecoder decoder = new FifoDecoder(false);
+        short[] samples = new short[9];
+        assertEquals(2, decoder.decode(entries, 0, entries.length, samples, 0));
+        assertArrayEquals(new short[]{1, 2, 3, 7, 8, 9, 0, 0, 0}, samples);
+        assertEquals(4, decoder.getSkipped());
+    }
+
+    @Test
+    public void keepsPartialSamplesAcrossReads() {
+        short[] entries = entries(
+                entry(FifoDecoder.CHANNEL_X, 1), entry(FifoDecoder.CHANNEL_Y, 2),
+                entry(FifoDecoder.CHANNEL_Z, 3), entry(FifoDecoder.CHANNEL_TEMP, 300));
+        FifoDecoder decoder = new FifoDecoder(true);
+        short[] samples = new short[4];
+        assertEquals(0, decoder.decode(entries, 0, 2, samples, 0));
+        assertEquals(1, decoder.decode(entries, 2, 2, samples, 0));
+        assertArrayEquals(new short[]{1, 2, 3, 300}, samples);
+        assertEquals(0, decoder.getSkipped());
+    }
+
+    @Test
+    public void readsEntriesOutOfTheFifo() throws Exception {
+        SimulatedTransport spi = new SimulatedTransport();
+        Adxl362Device device = new Adxl362Device(spi);
+        spi.pushFifo(entry(FifoDecoder.CHANNEL_X, -100), entry(FifoDecoder.CHANNEL_Y, 200), entry(FifoDecoder.CHANNEL_Z, 1000));
+
+        assertEquals(3, device.read(new ReadPlan(Field.FIFO_ENTRIES), new Snapshot()).getFifoEntries());
+        short[] entries = new short[3];
+        device.readFifo(entries, 0, 3);
+        assertEquals(Registers.CMD_READ_FIFO, spi.lastRequest[0]);
+        assertEquals(7, spi.lastRequest.length);
+
+        short[] samples = new short[3];
+        assertEquals(1, new FifoDecoder(false).decode(entries, 0, 3, samples, 0));
+        assertArrayEquals(new short[]{-100, 200, 1000}, samples);
+        assertEquals(0, device.read(new ReadPlan(Field.FIFO_ENTRIES), new Snapshot()).getFifoEntries());
+    }
+
+    private static short[] entries(int... values) {
+        short[] entries = new short[values.length];
+        for (int i = 0; i < values.length; i++) {
+            entries[i] = (short) values[i];
+        }
+        return entries;
+    }
+}
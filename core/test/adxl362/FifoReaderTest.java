@@ -0,0 +1,81 @@
+package adxl362;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static adxl362.SimulatedTransport.entry;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * {@link FifoReader} batches, with and without temperature entries, and through a {@link FaultGuard}.
+ */
+public class FifoReaderTest {
+
+    private final SimulatedTransport spi = new SimulatedTransport();
+    private final Adxl362Device device = new Adxl362Device(spi);
+    private final SampleBatch batch = new SampleBatch(170);
+
+    @Test
+    public void startsTheFifoInStreamMode() throws Exception {
+        new FifoReader(device, Channels.XYZ, 1000).start(100);
+        assertEquals(FifoMode.STREAM.getBits(), spi.registers[Registers.FIFO_CONTROL] & FifoMode.MASK);
+        assertEquals(0, spi.registers[Registers.FIFO_CONTROL] & 0x04);        // no temperature entries
+        assertEquals(300 - 0x100, spi.registers[Registers.FIFO_SAMPLES] & 0xFF);
+        assertEquals(0x02, spi.registers[Registers.POWER_CTL]);
+    }
+
+    @Test
+    public void readsXyzBatchesAndTemperatureApart() throws Exception {
+        FifoReader reader = new FifoReader(device, Channels.XYZ, 1000);
+        reader.start(16);
+        spi.setSample(0, 0, 0, 350);
+        spi.pushFifo(entry(FifoDecoder.CHANNEL_X, 1), entry(FifoDecoder.CHANNEL_Y, 2), entry(FifoDecoder.CHANNEL_Z, 3),
+                entry(FifoDecoder.CHANNEL_X, -4), entry(FifoDecoder.CHANNEL_Y, 5), entry(FifoDecoder.CHANNEL_Z, 6));
+        assertEquals(2, reader.read(batch));
+        assertEquals(2, batch.getCount());
+        assertEquals(-4, batch.getXyz()[3]);
+        assertEquals(6, batch.getXyz()[5]);
+        assertEquals(350, batch.getTemperature());
+        assertFalse(batch.isAfterGap());
+    }
+
+    @Test
+    public void takesTemperatureFromFifoEntries() throws Exception {
+        FifoReader reader = new FifoReader(device, Channels.XYZ_TEMP, 1000);
+        reader.start(16);
+        spi.pushFifo(entry(FifoDecoder.CHANNEL_X, 1), entry(FifoDecoder.CHANNEL_Y, 2), entry(FifoDecoder.CHANNEL_Z, 3),
+                entry(FifoDecoder.CHANNEL_TEMP, 300));
+        assertEquals(1, reader.read(batch));
+        assertArrayEquals(new short[]{1, 2, 3}, Arrays.copyOf(batch.getXyz(), 3));
+        assertEquals(300, batch.getTemperature());
+    }
+
+    @Test
+    public void stopsAtTheBatchCapacity() throws Exception {
+        FifoReader reader = new FifoReader(device, Channels.XYZ, 1000);
+        reader.start(16);
+        for (int i = 0; i < 3; i++) {
+            spi.pushFifo(entry(FifoDecoder.CHANNEL_X, i), entry(FifoDecoder.CHANNEL_Y, i), entry(FifoDecoder.CHANNEL_Z, i));
+        }
+        SampleBatch small = new SampleBatch(2);
+        assertEquals(2, reader.read(small));
+        assertEquals(1, reader.read(small));
+        assertEquals(2, small.getXyz()[0]);
+    }
+
+    @Test
+    public void marksTheBatchAfterARecoveredFault() throws Exception {
+        FifoReader reader = new FifoReader(new FaultGuard(device).setRetries(3, 1, 1), Channels.XYZ, 1000);
+        reader.start(16);
+        spi.pushFifo(entry(FifoDecoder.CHANNEL_X, 1), entry(FifoDecoder.CHANNEL_Y, 2), entry(FifoDecoder.CHANNEL_Z, 3));
+        spi.deadTransfers = 1;
+        assertEquals(0, reader.read(batch));
+        assertTrue(batch.isAfterGap());
+        assertEquals(1, reader.read(batch));
+        assertFalse(batch.isAfterGap());
+    }
+}
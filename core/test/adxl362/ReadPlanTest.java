@@ -0,0 +1,54 @@
+package adxl362;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Burst merging of {@link ReadPlan} and decoding into {@link Snapshot}.
+ */
+public class ReadPlanTest {
+
+    @Test
+    public void mergesAdjacentFieldsIntoOneBurst() {
+        ReadPlan plan = new ReadPlan(Field.STATUS, Field.X, Field.Y, Field.Z);
+        assertEquals(1, plan.getTransactionCount());
+        assertEquals(Registers.STATUS, plan.getStart(0));
+        assertEquals(9, plan.getLength(0));         // STATUS to ZDATA_H, FIFO_ENTRIES bridged
+        assertEquals(11, plan.getBytesPerExecution());
+    }
+
+    @Test
+    public void neverBridgesStatusOrReservedRegisters() {
+        ReadPlan plan = new ReadPlan(Field.XDATA8, Field.X);
+        assertEquals(2, plan.getTransactionCount());     // reading STATUS along would clear it
+
+        plan = new ReadPlan(Field.DEVID_AD, Field.PARTID, Field.X, Field.POWER_CTL);
+        assertEquals(3, plan.getTransactionCount());
+        assertEquals(3, plan.getLength(0));
+        assertEquals(Registers.XDATA_L, plan.getStart(1));
+        assertEquals(Registers.POWER_CTL, plan.getStart(2));
+    }
+
+    @Test
+    public void decodesSignedValues() throws Exception {
+        SimulatedTransport spi = new SimulatedTransport();
+        spi.setSample(-1000, 5, 2047, 350);
+        Snapshot snapshot = new Adxl362Device(spi).read(new ReadPlan(Field.X, Field.Y, Field.Z, Field.TEMP), new Snapshot());
+        assertEquals(1, spi.transfers);
+        assertEquals(-1000, snapshot.getX());
+        assertEquals(5, snapshot.getY());
+        assertEquals(2047, snapshot.getZ());
+        assertEquals(350, snapshot.getTemp());
+    }
+
+    @Test
+    public void shortPlansNeverLookStuck() {
+        byte[] zeros = new byte[Registers.REGISTER_COUNT];
+        assertFalse(new ReadPlan(Field.TEMP).isStuck(zeros));
+        assertTrue(new ReadPlan(Field.X, Field.Y, Field.Z).isStuck(zeros));
+    }
+}
@@ -0,0 +1,71 @@
+package adxl362;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * {@link RegisterShadow} flushing through {@link Adxl362Device}: single burst writes,
+ * skipped writes and drift repair.
+ */
+public class RegisterShadowTest {
+
+    private final SimulatedTransport spi = new SimulatedTransport();
+    private final Adxl362Device device = new Adxl362Device(spi);
+
+    @Test
+    public void firstFlushSyncsAndWritesNothingUnchanged() throws Exception {
+        assertEquals(0, device.flushConfig());
+        assertEquals(1, spi.transfers);             // the read of the config block only
+        assertTrue(device.getConfig().isSynced());
+    }
+
+    @Test
+    public void writesOnlyTheChangedRegister() throws Exception {
+        device.verifyConfig();
+        device.getConfig().setOdr(Odr.HZ_400);
+        int before = spi.transfers;
+        assertEquals(1, device.flushConfig());
+        assertEquals(before + 1, spi.transfers);
+        assertArrayEquals(new byte[]{Registers.CMD_WRITE, Registers.FILTER_CTL, 0x15}, spi.lastRequest);
+        assertEquals(Odr.HZ_400, device.getConfig().getOdr());
+    }
+
+    @Test
+    public void skipsValuesAlreadyOnTheDevice() throws Exception {
+        device.verifyConfig();
+        device.getConfig().setRange(Range.G2).setOdr(Odr.HZ_100);     // the reset values
+        int before = spi.transfers;
+        assertEquals(0, device.flushConfig());
+        assertEquals(before, spi.transfers);
+    }
+
+    @Test
+    public void spansTheDirtyRegistersWithOneWrite() throws Exception {
+        device.verifyConfig();
+        device.getConfig().set(Registers.THRESH_ACT_L, 0x55).set(Registers.TIME_ACT, 0xAA);
+        int before = spi.transfers;
+        assertEquals(3, device.flushConfig());
+        assertEquals(before + 1, spi.transfers);
+        assertEquals(0x55, spi.registers[Registers.THRESH_ACT_L] & 0xFF);
+        assertEquals(0, spi.registers[Registers.THRESH_ACT_H]);
+        assertEquals(0xAA, spi.registers[Registers.TIME_ACT] & 0xFF);
+    }
+
+    @Test
+    public void repairsDrift() throws Exception {
+        device.getConfig().setRange(Range.G8).setMeasurement(true);
+        device.flushConfig();
+        assertEquals(0, device.verifyConfig());
+
+        spi.softReset();                            // brown-out
+        assertEquals(2, device.verifyConfig());
+        assertTrue(device.flushConfig() > 0);
+        assertEquals(0, device.verifyConfig());
+        assertEquals(Range.G8, device.getConfig().getRange());
+        assertEquals(0x02, spi.registers[Registers.POWER_CTL]);
+    }
+}
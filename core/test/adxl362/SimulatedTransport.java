@@ -0,0 +1,140 @@
+package adxl362;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * In-memory ADXL362 behind an {@link SpiTransport}: register file with auto-increment
+ * reads and writes, soft reset, DATA_READY, and a FIFO drained by the FIFO read instruction.
+ * Faults can be injected: a dead bus (all 0xFF) or transfers failing with an IOException.
+ */
+class SimulatedTransport implements SpiTransport {
+
+    static final int STATUS_DATA_READY = 0x01;
+
+    final byte[] registers = new byte[0x40];
+    private final short[] fifo = new short[FifoDecoder.CAPACITY];
+    private int fifoHead;
+    private int fifoCount;
+    private boolean dataReady;
+
+    /** Transfers returning 0xFF only, negative for a bus that stays dead. */
+    int deadTransfers;
+    /** Transfers failing with an IOException. */
+    int failingTransfers;
+    int transfers;
+    byte[] lastRequest = new byte[0];
+
+    SimulatedTransport() {
+        registers[Registers.DEVID_AD] = (byte) Registers.DEVID_AD_VALUE;
+        registers[Registers.DEVID_MST] = (byte) Registers.DEVID_MST_VALUE;
+        registers[Registers.PARTID] = (byte) Registers.PARTID_VALUE;
+        registers[Registers.REVID] = 0x02;
+        softReset();
+    }
+
+    /**
+     * Config registers back to their defaults, as after a soft reset or a brown-out.
+     */
+    void softReset() {
+        Arrays.fill(registers, Registers.THRESH_ACT_L, Registers.SELF_TEST + 1, (byte) 0);
+        registers[Registers.FIFO_SAMPLES] = (byte) 0x80;
+        registers[Registers.FILTER_CTL] = 0x13;
+        fifoCount = 0;
+    }
+
+    /**
+     * A new sample in the data registers, DATA_READY set.
+     */
+    void setSample(int x, int y, int z, int temp) {
+        int[] values = {x, y, z, temp};
+        for (int i = 0; i < values.length; i++) {
+            registers[Registers.XDATA_L + i * 2] = (byte) values[i];
+            registers[Registers.XDATA_L + i * 2 + 1] = (byte) (values[i] >> 8);
+        }
+        registers[Registers.XDATA] = (byte) (x >> 4);
+        registers[Registers.YDATA] = (byte) (y >> 4);
+        registers[Registers.ZDATA] = (byte) (z >> 4);
+        dataReady = true;
+    }
+
+    /**
+     * Append raw entries to the FIFO, channel ID included.
+     */
+    void pushFifo(int... entries) {
+        for (int entry : entries) {
+            fifo[(fifoHead + fifoCount++) % fifo.length] = (short) entry;
+        }
+    }
+
+    static int entry(int channel, int value) {
+        return (channel << 14) | (value & 0x3FFF);
+    }
+
+    @Override
+    public void transfer(byte[] tx, byte[] rx, int length) throws IOException {
+        transfers++;
+        lastRequest = Arrays.copyOf(tx, length);
+        if (failingTransfers > 0) {
+            failingTransfers--;
+            throw new IOException("simulated SPI error");
+        }
+        if (deadTransfers != 0) {
+            deadTransfers--;
+            Arrays.fill(rx, 0, length, (byte) 0xFF);
+            return;
+        }
+        Arrays.fill(rx, 0, length, (byte) 0);
+        int address = length > 1 ? tx[1] & 0xFF : 0;
+        switch (tx[0]) {
+            case Registers.CMD_READ:
+                for (int i = 2; i < length; i++) {
+                    rx[i] = read(address + i - 2);
+                }
+                break;
+            case Registers.CMD_WRITE:
+                for (int i = 2; i < length; i++) {
+                    write(address + i - 2, tx[i]);
+                }
+                break;
+            case Registers.CMD_READ_FIFO:
+                for (int i = 1; i + 1 < length && fifoCount > 0; i += 2) {
+                    short entry = fifo[fifoHead];
+                    fifoHead = (fifoHead + 1) % fifo.length;
+                    fifoCount--;
+                    rx[i] = (byte) entry;
+                    rx[i + 1] = (byte) (entry >> 8);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private byte read(int address) {
+        if (address == Registers.STATUS) {
+            return (byte) (dataReady ? STATUS_DATA_READY : 0);
+        }
+        if (address == Registers.FIFO_ENTRIES_L) {
+            return (byte) fifoCount;
+        }
+        if (address == Registers.FIFO_ENTRIES_H) {
+            return (byte) (fifoCount >> 8);
+        }
+        if (address >= Registers.XDATA_L && address <= Registers.ZDATA_H) {
+            dataReady = false;
+        }
+        return address < registers.length ? registers[address] : 0;
+    }
+
+    private void write(int address, byte value) {
+        if (address == Registers.SOFT_RESET && value == Registers.SOFT_RESET_KEY) {
+            softReset();
+        } else if (address >= Registers.THRESH_ACT_L && address <= Registers.SELF_TEST) {
+            registers[address] = value;
+        }
+    }
+}
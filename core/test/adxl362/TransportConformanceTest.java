@@ -0,0 +1,72 @@
+package adxl362;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static adxl362.SimulatedTransport.entry;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Runs {@link TransportConformance}, the check every backend runs on hardware, against the
+ * simulated device, and checks it catches broken links.
+ */
+public class TransportConformanceTest {
+
+    @Test
+    public void simulatedDeviceConforms() throws Exception {
+        SimulatedTransport spi = new SimulatedTransport();
+        spi.registers[Registers.THRESH_ACT_H] = 0x03;
+        spi.registers[Registers.TIME_ACT] = 0x07;
+        spi.pushFifo(entry(FifoDecoder.CHANNEL_Z, 1),
+                entry(FifoDecoder.CHANNEL_X, 1), entry(FifoDecoder.CHANNEL_Y, 2), entry(FifoDecoder.CHANNEL_Z, 3));
+
+        TransportConformance.Report report = TransportConformance.run(spi, 100);
+        assertTrue(report.toString(), report.isPassed());
+        assertTrue(report.getPlanRate() > 0);
+        assertTrue(report.getBurstRate() > 0);
+        assertTrue(report.getFifoBytesPerSecond() > 0);
+        assertEquals(0x03, spi.registers[Registers.THRESH_ACT_H]);     // scratch registers restored
+        assertEquals(0x07, spi.registers[Registers.TIME_ACT]);
+    }
+
+    @Test
+    public void deadBusFails() throws Exception {
+        SimulatedTransport spi = new SimulatedTransport();
+        spi.deadTransfers = -1;
+        assertFalse(TransportConformance.run(spi, 10).isPassed());
+    }
+
+    @Test
+    public void garbledFifoFails() throws Exception {
+        SimulatedTransport spi = new SimulatedTransport();
+        for (int i = 0; i < 10; i++) {
+            spi.pushFifo(entry(FifoDecoder.CHANNEL_X, i));
+        }
+        TransportConformance.Report report = TransportConformance.run(spi, 10);
+        assertFalse(report.isPassed());
+        assertTrue(report.toString().contains("FIFO entries                   FAILED"));
+    }
+
+    @Test
+    public void corruptingLinkFails() throws Exception {
+        final SimulatedTransport spi = new SimulatedTransport();
+        SpiTransport flipping = new SpiTransport() {
+            private int count;
+
+            @Override
+            public void transfer(byte[] tx, byte[] rx, int length) throws IOException {
+                byte[] copy = Arrays.copyOf(tx, length);
+                if (++count % 3 == 0 && length > 2) {
+                    copy[length - 1] ^= 0x08;        // one bit flipped on MOSI
+                }
+                spi.transfer(copy, rx, length);
+            }
+        };
+        assertFalse(TransportConformance.run(flipping, 100).isPassed());
+    }
+}
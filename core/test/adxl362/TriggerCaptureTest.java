@@ -0,0 +1,77 @@
+package adxl362;
+
+import org.junit.Test;
+
+import static adxl362.SimulatedTransport.entry;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Arming and collection of {@link TriggerCapture}.
+ */
+public class TriggerCaptureTest {
+
+    private final SimulatedTransport spi = new SimulatedTransport();
+    private final Adxl362Device device = new Adxl362Device(spi);
+
+    @Test
+    public void armsTheTriggeredFifoWithOneWrite() throws Exception {
+        new TriggerCapture(device, 5, 10).arm(100, 2);
+        assertEquals(FifoMode.TRIGGERED.getBits(), spi.registers[Registers.FIFO_CONTROL] & FifoMode.MASK);
+        assertEquals(15, spi.registers[Registers.FIFO_SAMPLES]);
+        assertEquals(100, spi.registers[Registers.THRESH_ACT_L]);
+        assertEquals(0x10, spi.registers[Registers.INTMAP1] & 0x10);
+        assertEquals(0x03, spi.registers[Registers.ACT_INACT_CTL] & 0x03);
+        assertEquals(Registers.CMD_WRITE, spi.lastRequest[0]);
+    }
+
+    @Test
+    public void findsTheEventAfterAFullWindow() throws Exception {
+        device.getConfig().setOdr(Odr.HZ_400);
+        TriggerCapture capture = new TriggerCapture(device, 2, 3);
+        capture.arm(100, 2);
+        Thread.sleep(20);           // 8 samples at 400Hz, the pre-trigger window is full
+        pushSamples(5);
+        TriggerCapture.Capture result = capture.collect(1000);
+        assertEquals(5, result.getCount());
+        assertEquals(2, result.getTriggerIndex());
+        assertEquals(4, result.getSamples()[12]);
+    }
+
+    @Test
+    public void capsTheTriggerIndexRightAfterArming() throws Exception {
+        device.getConfig().setOdr(Odr.HZ_12_5);
+        TriggerCapture capture = new TriggerCapture(device, 5, 2);
+        capture.arm(100, 2);
+        pushSamples(7);             // 80ms per sample, the event came before the window filled
+        TriggerCapture.Capture result = capture.collect(1000);
+        assertEquals(7, result.getCount());
+        assertEquals(0, result.getTriggerIndex());
+    }
+
+    @Test(expected = SpiFaultException.class)
+    public void reportsADeadBus() throws Exception {
+        TriggerCapture capture = new TriggerCapture(device, 5, 2);
+        capture.arm(100, 2);
+        spi.deadTransfers = -1;
+        capture.collect(1000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAnEmptyPostTrigger() {
+        new TriggerCapture(device, 5, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAWindowLargerThanTheFifo() {
+        new TriggerCapture(device, 171, 10);
+    }
+
+    private void pushSamples(int count) {
+        for (int i = 0; i < count; i++) {
+            spi.pushFifo(entry(FifoDecoder.CHANNEL_X, i), entry(FifoDecoder.CHANNEL_Y, i), entry(FifoDecoder.CHANNEL_Z, i));
+        }
+    }
+}
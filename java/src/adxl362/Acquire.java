@@ -0,0 +1,170 @@
+package adxl362;
+
+import com.pi4j.io.spi.SpiChannel;
+import com.pi4j.io.spi.SpiMode;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Command line acquisition tool, logs ADXL362 samples to a file or to stdout.
+ * The FIFO is drained every {@value #DRAIN_MILLIS}ms by a {@link FifoReader} built on a
+ * {@link FaultGuard}, so the host wakes up 20 times a second whatever the output data rate,
+ * and a late wake up is absorbed by the FIFO (425ms deep at 400Hz without temperature).
+ * Samples are written through {@link TextSampleWriter} and a throughput and drop summary
+ * is printed to stderr at the end.
+ * Run with --help for the options.
+ */
+public class Acquire {
+
+    private static final String USAGE = "usage: java -cp Adxl362.jar:pi4j-core.jar adxl362.Acquire [options]\n"
+            + "  --channel <0|1>          SPI chip select, default 0\n"
+            + "  --frequency <Hz|auto>    SPI clock, auto picks the fastest reliable one, default 5000000\n"
+            + "  --odr <Hz>               output data rate 12.5 to 400, default 100\n"
+            + "  --range <2|4|8>          measurement range in g, default 2\n"
+            + "  --channels <xyz|xyztemp> xyztemp reads temperature with every sample,\n"
+            + "                           xyz reads it once a second, default xyz\n"
+            + "  --duration <seconds>     acquisition time, default 10\n"
+            + "  --format <csv|tsv>       output format, default csv\n"
+            + "  --output <file|->        output file, default - (stdout)";
+
+    /** Time between two FIFO drains. */
+    private static final int DRAIN_MILLIS = 50;
+    /** Device ID and configuration checks, each drain is one guarded read. */
+    private static final int CHECKS_PER_SECOND = 1;
+
+    public static void main(String[] args) {
+        int channel = 0;
+        int frequency = 5000000;
+        Odr odr = Odr.HZ_100;
+        Range range = Range.G2;
+        Channels channels = Channels.XYZ;
+        double duration = 10;
+        TextSampleWriter.Format format = TextSampleWriter.Format.CSV;
+        String output = "-";
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (option.equals("--help") || option.equals("-h")) {
+                    System.err.println(USAGE);
+                    return;
+                }
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("missing value for " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--channel":
+                        channel = Integer.parseInt(value);
+                        if (channel != 0 && channel != 1) {
+                            throw new IllegalArgumentException("--channel must be 0 or 1");
+                        }
+                        break;
+                    case "--frequency":
+                        frequency = value.equals("auto") ? 0 : Integer.parseInt(value);
+                        break;
+                    case "--odr":
+                        odr = Odr.atLeast(Float.parseFloat(value));
+                        break;
+                    case "--range":
+                        range = Range.valueOf("G" + value);
+                        break;
+                    case "--channels":
+                        channels = value.equals("xyztemp") ? Channels.XYZ_TEMP : Channels.valueOf(value.toUpperCase());
+                        break;
+                    case "--duration":
+                        duration = Double.parseDouble(value);
+                        break;
+                    case "--format":
+                        format = TextSampleWriter.Format.valueOf(value.toUpperCase());
+                        break;
+                    case "--output":
+                        output = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown option " + option);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        try {
+            OutputStream out = output.equals("-") ? System.out : new FileOutputStream(output);
+            try (TextSampleWriter writer = new TextSampleWriter(out, format, 64 * 1024)) {
+                SpiChannel spiChannel = channel == 0 ? SpiChannel.CS0 : SpiChannel.CS1;
+                if (frequency == 0) {
+                    SpiClockTuner.Result tuning = new SpiClockTuner().tune(spiChannel, SpiMode.MODE_0);
+                    System.err.println(tuning);
+                    frequency = tuning.getFrequency();
+                }
+                Adxl362 adxl362 = new Adxl362(spiChannel, frequency, SpiMode.MODE_0);
+                adxl362.doSoftReset();
+                adxl362.getConfig().setOdr(odr).setRange(range);
+                adxl362.beginMeasurement();
+                acquire(adxl362, odr, channels, (long) (duration * 1e9), writer);
+            }
+        } catch (IOException | InterruptedException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    private static void acquire(Adxl362 adxl362, Odr odr, Channels channels, long durationNanos,
+            TextSampleWriter writer) throws IOException, InterruptedException {
+        // the guard counts reads, not samples: one per drain, plus the temperature reads
+        FaultGuard guard = new FaultGuard(adxl362).setCheckInterval(1000 / DRAIN_MILLIS / CHECKS_PER_SECOND);
+        FifoReader reader = new FifoReader(guard, channels, 1000);
+        SampleBatch batch = new SampleBatch(FifoDecoder.CAPACITY / channels.getCount());
+        long periodNanos = (long) (1e9 / odr.getHertz());
+
+        writer.writeHeader("t_us", "x", "y", "z", "temp");
+        long samples = 0;
+        long dropped = 0;
+        long overruns = 0;
+        long gaps = 0;
+        long start = System.nanoTime();         // the FIFO fills from here
+        reader.start((int) (odr.getHertz() * DRAIN_MILLIS / 1000));
+        long end = start + durationNanos;
+        long last = start;
+        while (System.nanoTime() < end) {
+            Thread.sleep(DRAIN_MILLIS);
+            int count = reader.read(batch);
+            long timestamp = batch.getTimestampNanos();
+            if (batch.isAfterGap()) {
+                gaps++;
+            }
+            if (batch.isOverrun()) {
+                overruns++;
+                long missed = (timestamp - last + periodNanos / 2) / periodNanos - count;
+                if (missed > 0) {
+                    dropped += missed;      // the oldest samples were overwritten
+                }
+            }
+            last = timestamp;
+            short[] xyz = batch.getXyz();
+            for (int i = 0; i < count; i++) {
+                // the last sample of the batch is the newest, one period apart
+                long t = timestamp - (count - 1 - i) * periodNanos;
+                writer.writeSample((t - start) / 1000, xyz[i * 3], xyz[i * 3 + 1], xyz[i * 3 + 2],
+                        batch.getTemperature());
+            }
+            samples += count;
+        }
+        writer.flush();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.println(String.format("%d samples in %.2fs (%.1f Hz, configured %.1f Hz)",
+                samples, seconds, samples / seconds, odr.getHertz()));
+        System.err.println(String.format("%d samples dropped in %d FIFO overruns, %d gaps after SPI faults (%d faults, %d reconfigurations)",
+                dropped, overruns, gaps, guard.getFaults(), guard.getReconfigurations()));
+        System.err.println(String.format("%d bytes written (%.1f KB/s)",
+                writer.getBytesWritten(), writer.getBytesWritten() / seconds / 1024));
+    }
+}
@@ -34,8 +34,11 @@ public class Adxl {
             Adxl362 adxl362 = new Adxl362(SpiChannel.CS0, 5000000, SpiMode.MODE_0);
             adxl362.doSoftReset();
             adxl362.beginMeasurement();
+            ReadPlan plan = new ReadPlan(Field.X, Field.Y, Field.Z, Field.TEMP);    // one burst read per sample
+            Snapshot snapshot = new Snapshot();
             while(true) {
-                System.out.println("X is: " + adxl362.readXData() + ", Y is: " + adxl362.readYData() + ", Z is: " + adxl362.readZData() + ", TEMP is: " + adxl362.readTempData());
+                adxl362.read(plan, snapshot);
+                System.out.println("X is: " + snapshot.getX() + ", Y is: " + snapshot.getY() + ", Z is: " + snapshot.getZ() + ", TEMP is: " + snapshot.getTemp());
                 Thread.sleep(1000);
             }
         } catch(IOException | InterruptedException e) {
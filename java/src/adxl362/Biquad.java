@@ -0,0 +1,110 @@
+package adxl362;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Second order IIR section, transposed direct form II, designed with the
+ * RBJ audio EQ cookbook formulas. Coefficients and state are doubles: at the low
+ * cutoff to sample rate ratios used for gravity removal, float coefficients lose the poles.
+ * Higher orders are built by cascading sections, e.g. {@link #butterworthQ(int, int)}.
+ */
+public final class Biquad {
+
+    private final double b0;
+    private final double b1;
+    private final double b2;
+    private final double a1;
+    private final double a2;
+    private double z1;
+    private double z2;
+
+    private Biquad(double b0, double b1, double b2, double a0, double a1, double a2) {
+        this.b0 = b0 / a0;
+        this.b1 = b1 / a0;
+        this.b2 = b2 / a0;
+        this.a1 = a1 / a0;
+        this.a2 = a2 / a0;
+    }
+
+    /**
+     * @param sampleRateHz - sample rate
+     * @param cutoffHz - -3dB frequency for Q = 0.7071
+     * @param q - quality factor
+     * @return a low-pass section.
+     */
+    public static Biquad lowPass(double sampleRateHz, double cutoffHz, double q) {
+        double w0 = 2 * Math.PI * cutoffHz / sampleRateHz;
+        double cos = Math.cos(w0);
+        double alpha = Math.sin(w0) / (2 * q);
+        return new Biquad((1 - cos) / 2, 1 - cos, (1 - cos) / 2, 1 + alpha, -2 * cos, 1 - alpha);
+    }
+
+    /**
+     * @param sampleRateHz - sample rate
+     * @param cutoffHz - -3dB frequency for Q = 0.7071
+     * @param q - quality factor
+     * @return a high-pass section.
+     */
+    public static Biquad highPass(double sampleRateHz, double cutoffHz, double q) {
+        double w0 = 2 * Math.PI * cutoffHz / sampleRateHz;
+        double cos = Math.cos(w0);
+        double alpha = Math.sin(w0) / (2 * q);
+        return new Biquad((1 + cos) / 2, -(1 + cos), (1 + cos) / 2, 1 + alpha, -2 * cos, 1 - alpha);
+    }
+
+    /**
+     * @param sampleRateHz - sample rate
+     * @param centerHz - center frequency, unity gain
+     * @param q - quality factor, center / bandwidth
+     * @return a band-pass section.
+     */
+    public static Biquad bandPass(double sampleRateHz, double centerHz, double q) {
+        double w0 = 2 * Math.PI * centerHz / sampleRateHz;
+        double alpha = Math.sin(w0) / (2 * q);
+        return new Biquad(alpha, 0, -alpha, 1 + alpha, -2 * Math.cos(w0), 1 - alpha);
+    }
+
+    /**
+     * Q of one section of an even order Butterworth filter made of cascaded biquads.
+     * @param order - filter order, 2, 4, 6...
+     * @param section - section index, 0 to order / 2 - 1
+     * @return Q of the section.
+     */
+    public static double butterworthQ(int order, int section) {
+        return 1 / (2 * Math.cos(Math.PI * (2 * section + 1) / (2 * order)));
+    }
+
+    /**
+     * Filter one sample.
+     * @param x - input
+     * @return output.
+     */
+    public double process(double x) {
+        double y = b0 * x + z1;
+        z1 = b1 * x - a1 * y + z2;
+        z2 = b2 * x - a2 * y;
+        return y;
+    }
+
+    /**
+     * Set the state as if the input had always been {@code x}, so a constant offset
+     * (e.g. gravity) causes no start up transient.
+     * @param x - input value
+     * @return the steady state output for that input.
+     */
+    public double prime(double x) {
+        double y = x * (b0 + b1 + b2) / (1 + a1 + a2);
+        z1 = y - b0 * x;
+        z2 = b2 * x - a2 * y;
+        return y;
+    }
+
+    /**
+     * Clear the state.
+     */
+    public void reset() {
+        z1 = 0;
+        z2 = 0;
+    }
+}
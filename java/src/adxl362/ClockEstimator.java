@@ -0,0 +1,113 @@
+package adxl362;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Estimates the sample clock of one ADXL362 against the host clock.
+ * Every ADXL362 runs on its own internal oscillator, so its real output data rate
+ * differs from the nominal one by up to a few percent and drifts with temperature.
+ * The estimator is fed with (sample index, host time) observations, typically taken
+ * on data-ready or after each FIFO read, and tracks the time of a sample and the
+ * effective sample period with an alpha-beta filter. Memory use is constant.
+ */
+public final class ClockEstimator {
+
+    private final double nominalPeriodNanos;
+    private final double alpha;
+    private final double beta;
+
+    private boolean started;
+    private long lastIndex;
+    private double lastTime;
+    private double period;
+
+    /**
+     * Creates an estimator with default gains, suited to observations taken every few samples.
+     * @param nominalRateInHz - configured output data rate
+     */
+    public ClockEstimator(float nominalRateInHz) {
+        this(nominalRateInHz, 0.05, 0.002);
+    }
+
+    /**
+     * @param nominalRateInHz - configured output data rate
+     * @param alpha - gain on the sample time, 0 to 1. Lower values reject more host jitter.
+     * @param beta - gain on the sample period, much smaller than alpha
+     */
+    public ClockEstimator(float nominalRateInHz, double alpha, double beta) {
+        this.nominalPeriodNanos = 1e9 / nominalRateInHz;
+        this.alpha = alpha;
+        this.beta = beta;
+        this.period = nominalPeriodNanos;
+    }
+
+    /**
+     * Add an observation.
+     * @param index - index of the newest sample received so far, counted from 0
+     * @param hostNanos - host time at which it was received, e.g. {@link System#nanoTime()}
+     */
+    public void update(long index, long hostNanos) {
+        if (!started) {
+            lastIndex = index;
+            lastTime = hostNanos;
+            started = true;
+            return;
+        }
+        long step = index - lastIndex;
+        if (step <= 0) {
+            return;
+        }
+        double predicted = lastTime + step * period;
+        double residual = hostNanos - predicted;
+        lastTime = predicted + alpha * residual;
+        period += beta * residual / step;
+        lastIndex = index;
+    }
+
+    /**
+     * @return true once at least one observation was made.
+     */
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * Estimated host time of a sample.
+     * @param index - sample index
+     * @return host time in nanoseconds.
+     */
+    public double timeOf(long index) {
+        return lastTime + (index - lastIndex) * period;
+    }
+
+    /**
+     * Fractional sample index at a given host time, the inverse of {@link #timeOf(long)}.
+     * @param hostNanos - host time in nanoseconds
+     * @return sample index, not rounded.
+     */
+    public double indexAt(double hostNanos) {
+        return lastIndex + (hostNanos - lastTime) / period;
+    }
+
+    /**
+     * @return estimated sample period in nanoseconds.
+     */
+    public double getPeriodNanos() {
+        return period;
+    }
+
+    /**
+     * @return estimated output data rate in Hz.
+     */
+    public double getRateHz() {
+        return 1e9 / period;
+    }
+
+    /**
+     * @return deviation of the estimated rate from the nominal one, in parts per million.
+     */
+    public double getDriftPpm() {
+        return (nominalPeriodNanos / period - 1) * 1e6;
+    }
+}
@@ -0,0 +1,69 @@
+package adxl362;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Cheap replacements for {@link Math#atan2(double, double)} and 1 / {@link Math#sqrt(double)}
+ * for per sample use on small ARM cores. Error bounds are checked by {@link TiltBenchmark}.
+ */
+public final class FastMath {
+
+    /** Largest absolute error of {@link #atan2(float, float)}, in radians (about 0.001 degrees). */
+    public static final float ATAN2_MAX_ERROR = 2e-5f;
+    /** Largest relative error of {@link #invSqrt(float)}. */
+    public static final float INV_SQRT_MAX_RELATIVE_ERROR = 5e-6f;
+
+    private static final float PI = (float) Math.PI;
+    private static final float HALF_PI = (float) (Math.PI / 2);
+
+    private FastMath() {
+    }
+
+    /**
+     * Arc tangent of y / x in the range -PI to PI, like {@link Math#atan2(double, double)}.
+     * Uses the 9th order minimax polynomial of Abramowitz and Stegun (4.4.49) on the
+     * reduced argument (1e-5 in exact arithmetic), absolute error in float below {@link #ATAN2_MAX_ERROR}.
+     * @param y - ordinate
+     * @param x - abscissa
+     * @return angle in radians, 0 when both arguments are 0.
+     */
+    public static float atan2(float y, float x) {
+        float ax = Math.abs(x);
+        float ay = Math.abs(y);
+        if (ax == 0 && ay == 0) {
+            return 0;
+        }
+        float angle;
+        if (ay <= ax) {
+            angle = atan01(ay / ax);
+        } else {
+            angle = HALF_PI - atan01(ax / ay);
+        }
+        if (x < 0) {
+            angle = PI - angle;
+        }
+        return y < 0 ? -angle : angle;
+    }
+
+    /**
+     * Arc tangent for arguments in 0..1.
+     */
+    private static float atan01(float z) {
+        float z2 = z * z;
+        return z * (0.9998660f + z2 * (-0.3302995f + z2 * (0.1801410f + z2 * (-0.0851330f + z2 * 0.0208351f))));
+    }
+
+    /**
+     * Inverse square root, bit level initial guess refined by two Newton-Raphson steps.
+     * Relative error below {@link #INV_SQRT_MAX_RELATIVE_ERROR}.
+     * @param value - positive value
+     * @return 1 / sqrt(value).
+     */
+    public static float invSqrt(float value) {
+        float half = 0.5f * value;
+        float y = Float.intBitsToFloat(0x5F3759DF - (Float.floatToRawIntBits(value) >> 1));
+        y = y * (1.5f - half * y * y);
+        return y * (1.5f - half * y * y);
+    }
+}
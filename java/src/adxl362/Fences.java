@@ -0,0 +1,71 @@
+package adxl362;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Memory fences for data shared through memory mapped files.
+ * Java 8 has no public fence API, so sun.misc.Unsafe's loadFence/storeFence are used when
+ * available. Otherwise a volatile access is used, which also emits the barrier on ARM and x86.
+ */
+final class Fences {
+
+    private static final MethodHandle LOAD_FENCE;
+    private static final MethodHandle STORE_FENCE;
+    private static volatile int fallback;
+
+    static {
+        MethodHandle load = null;
+        MethodHandle store = null;
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Object unsafe = field.get(null);
+            load = MethodHandles.lookup().unreflect(type.getMethod("loadFence")).bindTo(unsafe);
+            store = MethodHandles.lookup().unreflect(type.getMethod("storeFence")).bindTo(unsafe);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            load = null;
+            store = null;
+        }
+        LOAD_FENCE = load;
+        STORE_FENCE = store;
+    }
+
+    private Fences() {
+    }
+
+    /**
+     * Loads before the fence are not reordered with loads after it.
+     */
+    static void loadFence() {
+        if (LOAD_FENCE == null) {
+            int ignored = fallback;
+            return;
+        }
+        try {
+            LOAD_FENCE.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Stores before the fence are not reordered with stores after it.
+     */
+    static void storeFence() {
+        if (STORE_FENCE == null) {
+            fallback = 0;
+            return;
+        }
+        try {
+            STORE_FENCE.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package adxl362;
+
+import com.pi4j.io.spi.SpiDevice;
+import java.io.IOException;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * {@link SpiTransport} over a pi4j SpiDevice.
+ * pi4j returns the received bytes in a new array, they are copied into the caller's buffer.
+ */
+public final class Pi4jTransport implements SpiTransport {
+
+    private final SpiDevice spiDevice;
+
+    /**
+     * @param spiDevice - pi4j device, see SpiFactory
+     */
+    public Pi4jTransport(SpiDevice spiDevice) {
+        this.spiDevice = spiDevice;
+    }
+
+    @Override
+    public void transfer(byte[] tx, byte[] rx, int length) throws IOException {
+        byte[] output = spiDevice.write(tx, 0, length);
+        System.arraycopy(output, 0, rx, 0, length);
+    }
+}
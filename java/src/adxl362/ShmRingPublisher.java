@@ -0,0 +1,169 @@
+package adxl362;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Publishes decoded samples into a ring of fixed size records in a memory mapped file,
+ * by default in /dev/shm, so any number of processes can follow the sensor through
+ * {@link ShmRingReader} without opening the SPI device or any socket.
+ * Each record has its own sequence number used as a seqlock: it is odd while the record is
+ * being written and even once complete, so readers detect torn or overwritten records.
+ * There is a single writer, the process owning the {@link Adxl362}.
+ *
+ * Layout, little endian:
+ * header (128 bytes): magic, version, capacity, record size, epoch (long, changes each time the
+ * ring is created), then at offset 64 the number of published records (long). Records (24 bytes): sequence (int), flags (int), timestamp (long),
+ * X, Y, Z, temperature (short).
+ */
+public class ShmRingPublisher implements AutoCloseable {
+
+    /** Default ring file. */
+    public static final String DEFAULT_PATH = "/dev/shm/adxl362";
+    /** Flag of a record following a gap in the stream, see {@link Snapshot#isAfterGap()}. */
+    public static final int FLAG_AFTER_GAP = 0x01;
+
+    static final int MAGIC = 0x41333632;        // "A362"
+    static final int VERSION = 1;
+    static final int OFFSET_MAGIC = 0;
+    static final int OFFSET_VERSION = 4;
+    static final int OFFSET_CAPACITY = 8;
+    static final int OFFSET_RECORD_SIZE = 12;
+    static final int OFFSET_EPOCH = 16;
+    static final int OFFSET_PUBLISHED = 64;     // own cache line, written on every record
+    static final int HEADER_SIZE = 128;
+    static final int RECORD_SIZE = 24;
+    static final int RECORD_SEQUENCE = 0;
+    static final int RECORD_FLAGS = 4;
+    static final int RECORD_TIMESTAMP = 8;
+    static final int RECORD_VALUES = 16;
+
+    private final RandomAccessFile file;
+    private final MappedByteBuffer buffer;
+    private final int mask;
+    private long published;
+
+    /**
+     * Create the ring in {@link #DEFAULT_PATH}.
+     * @param capacity - number of records, a power of two
+     * @throws IOException
+     */
+    public ShmRingPublisher(int capacity) throws IOException {
+        this(DEFAULT_PATH, capacity);
+    }
+
+    /**
+     * Create (or recreate) the ring file. A ring of the same size is reused in place, otherwise
+     * the file is replaced, never resized under the readers' mappings.
+     * @param path - ring file, preferably on a tmpfs like /dev/shm
+     * @param capacity - number of records, a power of two. 4096 holds 10 seconds at 400Hz.
+     * @throws IOException
+     */
+    public ShmRingPublisher(String path, int capacity) throws IOException {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        long size = HEADER_SIZE + (long) capacity * RECORD_SIZE;
+        RandomAccessFile previous = new RandomAccessFile(path, "rw");
+        if (previous.length() >= Integer.BYTES) {
+            previous.seek(OFFSET_MAGIC);
+            previous.writeInt(0);   // readers of a previous ring stop before it is reinitialised
+        }
+        if (previous.length() == size) {
+            file = previous;
+        } else {
+            // resizing a file readers still have mapped would SIGBUS them past the new end,
+            // a new file leaves them the old one until they notice and reopen
+            previous.close();
+            Files.deleteIfExists(Paths.get(path));
+            file = new RandomAccessFile(path, "rw");
+            file.setLength(size);
+        }
+        buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        mask = capacity - 1;
+
+        for (int i = 0; i < capacity; i++) {
+            buffer.putInt(HEADER_SIZE + i * RECORD_SIZE + RECORD_SEQUENCE, -1);
+        }
+        buffer.putInt(OFFSET_VERSION, VERSION);
+        buffer.putInt(OFFSET_CAPACITY, capacity);
+        buffer.putInt(OFFSET_RECORD_SIZE, RECORD_SIZE);
+        buffer.putLong(OFFSET_EPOCH, System.currentTimeMillis() ^ System.nanoTime());
+        buffer.putLong(OFFSET_PUBLISHED, 0);
+        Fences.storeFence();
+        buffer.putInt(OFFSET_MAGIC, MAGIC);     // last, readers wait for it
+    }
+
+    /**
+     * Append one sample.
+     * @param timestampNanos - time of the sample, {@link System#nanoTime()} is shared by processes on Linux
+     * @param x - X axis value
+     * @param y - Y axis value
+     * @param z - Z axis value
+     * @param temperature - temperature value
+     * @param flags - FLAG_AFTER_GAP or 0
+     */
+    public void publish(long timestampNanos, int x, int y, int z, int temperature, int flags) {
+        int record = HEADER_SIZE + (int) (published & mask) * RECORD_SIZE;
+        int sequence = (int) (published * 2);
+        buffer.putInt(record + RECORD_SEQUENCE, sequence + 1);     // odd: being written
+        Fences.storeFence();
+        buffer.putInt(record + RECORD_FLAGS, flags);
+        buffer.putLong(record + RECORD_TIMESTAMP, timestampNanos);
+        buffer.putShort(record + RECORD_VALUES, (short) x);
+        buffer.putShort(record + RECORD_VALUES + 2, (short) y);
+        buffer.putShort(record + RECORD_VALUES + 4, (short) z);
+        buffer.putShort(record + RECORD_VALUES + 6, (short) temperature);
+        Fences.storeFence();
+        buffer.putInt(record + RECORD_SEQUENCE, sequence + 2);     // even: complete
+        published++;
+        Fences.storeFence();
+        buffer.putLong(OFFSET_PUBLISHED, published);
+    }
+
+    /**
+     * Append a sample read with a plan containing X, Y and Z, and TEMP if available.
+     * @param snapshot - sample to be published
+     */
+    public void publish(Snapshot snapshot) {
+        int temperature = snapshot.getPlan().contains(Field.TEMP) ? snapshot.getTemp() : 0;
+        publish(snapshot.getTimestampNanos(), snapshot.getX(), snapshot.getY(), snapshot.getZ(),
+                temperature, snapshot.isAfterGap() ? FLAG_AFTER_GAP : 0);
+    }
+
+    /**
+     * Append the samples of a FIFO batch. Timestamps are spread back from the batch timestamp.
+     * @param batch - samples to be published
+     * @param periodNanos - sample period
+     */
+    public void publish(SampleBatch batch, long periodNanos) {
+        short[] xyz = batch.getXyz();
+        int count = batch.getCount();
+        for (int i = 0; i < count; i++) {
+            publish(batch.getTimestampNanos() - (count - 1 - i) * periodNanos, xyz[i * 3], xyz[i * 3 + 1],
+                    xyz[i * 3 + 2], batch.getTemperature(), i == 0 && batch.isOverrun() ? FLAG_AFTER_GAP : 0);
+        }
+    }
+
+    /**
+     * @return number of records published so far.
+     */
+    public long getPublished() {
+        return published;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        file.close();
+    }
+}
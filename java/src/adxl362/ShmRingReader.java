@@ -0,0 +1,189 @@
+package adxl362;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static adxl362.ShmRingPublisher.HEADER_SIZE;
+import static adxl362.ShmRingPublisher.RECORD_FLAGS;
+import static adxl362.ShmRingPublisher.RECORD_SEQUENCE;
+import static adxl362.ShmRingPublisher.RECORD_SIZE;
+import static adxl362.ShmRingPublisher.RECORD_TIMESTAMP;
+import static adxl362.ShmRingPublisher.RECORD_VALUES;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Follows a ring written by {@link ShmRingPublisher}, from any JVM process.
+ * Records are read straight from the shared mapping into the caller's arrays, nothing is
+ * allocated or copied in between. A reader that falls more than the ring capacity behind
+ * is lapped: it skips ahead, and the skipped records are counted in {@link #getLost()}.
+ * A reader is not thread safe, use one per thread.
+ */
+public class ShmRingReader implements AutoCloseable {
+
+    private final RandomAccessFile file;
+    private final MappedByteBuffer buffer;
+    private final long epoch;
+    private final int capacity;
+    private final int mask;
+    private long next;
+    private long lost;
+    private long lapped;
+
+    /**
+     * Open the ring in {@link ShmRingPublisher#DEFAULT_PATH}, starting with the next published record.
+     * @throws IOException if no ring is published there
+     */
+    public ShmRingReader() throws IOException {
+        this(ShmRingPublisher.DEFAULT_PATH, false);
+    }
+
+    /**
+     * @param path - ring file given to the publisher
+     * @param fromOldest - true to start with the oldest record still in the ring,
+     *                   false to start with the next published one
+     * @throws IOException if no ring is published there
+     */
+    public ShmRingReader(String path, boolean fromOldest) throws IOException {
+        file = new RandomAccessFile(path, "r");
+        if (file.length() < HEADER_SIZE) {
+            file.close();
+            throw new IOException("no ADXL362 ring at " + path);
+        }
+        MappedByteBuffer header = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        if (header.getInt(ShmRingPublisher.OFFSET_MAGIC) != ShmRingPublisher.MAGIC
+                || header.getInt(ShmRingPublisher.OFFSET_VERSION) != ShmRingPublisher.VERSION
+                || header.getInt(ShmRingPublisher.OFFSET_RECORD_SIZE) != RECORD_SIZE) {
+            file.close();
+            throw new IOException("no ADXL362 ring at " + path);
+        }
+        Fences.loadFence();
+        capacity = header.getInt(ShmRingPublisher.OFFSET_CAPACITY);
+        epoch = header.getLong(ShmRingPublisher.OFFSET_EPOCH);
+        mask = capacity - 1;
+        buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        long published = published();
+        next = fromOldest ? Math.max(0, published - capacity) : published;
+    }
+
+    /**
+     * Read the records published since the last call.
+     * @param values - receives X, Y, Z and temperature of each record, 4 values per record
+     * @param timestamps - receives the timestamp of each record
+     * @param flags - receives the flags of each record, may be null
+     * @param max - largest number of records to be read
+     * @return number of records read, 0 if none is available yet.
+     * @throws IOException if the publisher recreated the ring, open a new reader then
+     */
+    public int read(short[] values, long[] timestamps, int[] flags, int max) throws IOException {
+        if (buffer.getInt(ShmRingPublisher.OFFSET_MAGIC) != ShmRingPublisher.MAGIC
+                || buffer.getLong(ShmRingPublisher.OFFSET_EPOCH) != epoch) {
+            throw new IOException("the ring was recreated by its publisher");
+        }
+        Fences.loadFence();
+        long published = published();
+        if (published - next > capacity) {
+            skipTo(published - capacity);
+        }
+
+        int count = 0;
+        while (count < max && next < published) {
+            int record = HEADER_SIZE + (int) (next & mask) * RECORD_SIZE;
+            int expected = (int) (next * 2 + 2);
+            int sequence = buffer.getInt(record + RECORD_SEQUENCE);
+            Fences.loadFence();
+            if (sequence != expected) {
+                if (sequence - expected > 0) {
+                    skipTo(published() - capacity / 2);     // overwritten, jump ahead with some room
+                    published = published();
+                    continue;
+                }
+                break;      // still being written
+            }
+            if (flags != null) {
+                flags[count] = buffer.getInt(record + RECORD_FLAGS);
+            }
+            timestamps[count] = buffer.getLong(record + RECORD_TIMESTAMP);
+            values[count * 4] = buffer.getShort(record + RECORD_VALUES);
+            values[count * 4 + 1] = buffer.getShort(record + RECORD_VALUES + 2);
+            values[count * 4 + 2] = buffer.getShort(record + RECORD_VALUES + 4);
+            values[count * 4 + 3] = buffer.getShort(record + RECORD_VALUES + 6);
+            Fences.loadFence();
+            if (buffer.getInt(record + RECORD_SEQUENCE) != sequence) {
+                continue;   // overwritten while reading, the next pass sees the newer sequence
+            }
+            count++;
+            next++;
+        }
+        return count;
+    }
+
+    private void skipTo(long position) {
+        if (position > next) {
+            lost += position - next;
+            lapped++;
+            next = position;
+        }
+    }
+
+    /**
+     * The counter is a long, which 32 bit ARM may write in two halves: read until stable.
+     */
+    private long published() {
+        while (true) {
+            long first = buffer.getLong(ShmRingPublisher.OFFSET_PUBLISHED);
+            Fences.loadFence();
+            long second = buffer.getLong(ShmRingPublisher.OFFSET_PUBLISHED);
+            if (first == second) {
+                return first;
+            }
+        }
+    }
+
+    /**
+     * @return records published but not read yet, possibly more than the capacity if lapped.
+     */
+    public long available() {
+        return published() - next;
+    }
+
+    /**
+     * @return index of the next record to be read.
+     */
+    public long getPosition() {
+        return next;
+    }
+
+    /**
+     * @return number of records skipped because the reader was lapped.
+     */
+    public long getLost() {
+        return lost;
+    }
+
+    /**
+     * @return number of times the reader was lapped.
+     */
+    public long getLapped() {
+        return lapped;
+    }
+
+    /**
+     * @return number of records the ring holds.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
@@ -0,0 +1,205 @@
+package adxl362;
+
+import com.pi4j.io.spi.SpiChannel;
+import com.pi4j.io.spi.SpiMode;
+import java.io.IOException;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Finds the fastest SPI clock that works reliably on a given board and cable.
+ * Candidate frequencies are tried from the slowest up. At each one the fixed ID registers
+ * (DEVID_AD 0xAD, DEVID_MST 0x1D, PARTID 0xF2) are read and test patterns are written to
+ * THRESH_ACT_L and TIME_ACT and read back, a number of times. Stepping stops at the first
+ * frequency showing an error. The chosen clock is the fastest passing candidate not above
+ * the fastest passing one scaled by the safety margin.
+ * The configuration block is read once at the slowest frequency and written back whole
+ * afterwards, at the chosen frequency, so nothing corrupted at a failing clock survives.
+ * With pi4j 1.x the clock belongs to the channel, not to the SpiDevice: every
+ * SpiFactory.getInstance sets it for all the devices already open on that channel.
+ * Each candidate, and the restore, therefore opens its own device, and as pi4j 1.x
+ * cannot close one, each keeps an SPI file descriptor open until the JVM exits
+ * (7 at most by default). The caller opens the device it uses afterwards the same way,
+ * which leaves the channel at the frequency it asks for.
+ * Run it once, before configuring the device.
+ */
+public class SpiClockTuner {
+
+    /** Tried by default, ADXL362 supports 1MHz to 8MHz. */
+    private static final int[] DEFAULT_CANDIDATES = {1000000, 2000000, 4000000, 5000000, 6000000, 8000000};
+    private static final int[] PATTERNS = {0x55, 0xAA, 0x00, 0xFF};
+
+    private final ReadPlan configPlan = new ReadPlan(Field.THRESH_ACT, Field.SELF_TEST);
+
+    private int[] candidates = DEFAULT_CANDIDATES;
+    private int trials = 100;
+    private double margin = 0.8;
+
+    /**
+     * @param frequenciesInHz - frequencies to be tried, in increasing order
+     * @return this tuner, for chaining.
+     */
+    public SpiClockTuner setCandidates(int... frequenciesInHz) {
+        this.candidates = frequenciesInHz.clone();
+        return this;
+    }
+
+    /**
+     * @param trials - read and write/read-back rounds done at each frequency
+     * @return this tuner, for chaining.
+     */
+    public SpiClockTuner setTrials(int trials) {
+        this.trials = trials;
+        return this;
+    }
+
+    /**
+     * @param margin - fraction of the fastest passing frequency that may be used, 0 to 1
+     * @return this tuner, for chaining.
+     */
+    public SpiClockTuner setMargin(double margin) {
+        this.margin = margin;
+        return this;
+    }
+
+    /**
+     * Step through the candidate frequencies.
+     * @param channel - SPI channel the ADXL362 is on
+     * @param mode - SPI mode, MODE_0 for the ADXL362
+     * @return the outcome of each candidate and the chosen frequency.
+     * @throws IOException if even the slowest frequency fails
+     */
+    public Result tune(SpiChannel channel, SpiMode mode) throws IOException {
+        // the configuration read at the slowest clock is trusted, and restored at the chosen one
+        Snapshot baseline = new Snapshot();
+        new Adxl362(channel, candidates[0], mode).read(configPlan, baseline);
+        // what the device holds, as far as we know: the baseline, then the last test patterns
+        byte[] device = baseline.getRegisters().clone();
+
+        int[] errors = new int[candidates.length];
+        int tested = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            errors[i] = test(new Adxl362(channel, candidates[i], mode), device);
+            tested++;
+            if (errors[i] > 0) {
+                break;
+            }
+        }
+
+        int fastest = -1;
+        for (int i = 0; i < tested && errors[i] == 0; i++) {
+            fastest = i;
+        }
+        if (fastest < 0) {
+            restore(new Adxl362(channel, candidates[0], mode), baseline);
+            throw new SpiFaultException("ADXL362 not reliable even at " + candidates[0] + "Hz");
+        }
+        int chosen = 0;
+        for (int i = 0; i <= fastest; i++) {
+            if (candidates[i] <= candidates[fastest] * margin) {
+                chosen = i;
+            }
+        }
+        // opening a device sets the channel clock, the last candidate tested may have failed
+        restore(new Adxl362(channel, candidates[chosen], mode), baseline);
+        return new Result(candidates, errors, tested, candidates[fastest], candidates[chosen]);
+    }
+
+    /**
+     * @param device - register image of what the device holds, updated with the patterns written
+     * @return number of failed checks, 0 if the link is clean.
+     */
+    private int test(Adxl362 adxl362, byte[] device) {
+        ReadPlan identityPlan = new ReadPlan(Field.DEVID_AD, Field.DEVID_MST, Field.PARTID);
+        Snapshot identity = new Snapshot();
+        Snapshot readBack = new Snapshot();
+        RegisterShadow config = adxl362.getConfig();
+        // nothing read at this clock enters the shadow, and a pattern equal to what the previous
+        // candidate left in the scratch registers is not mistaken for the baseline and skipped
+        config.load(device);
+        int errors = 0;
+        try {
+            for (int trial = 0; trial < trials; trial++) {
+                adxl362.read(identityPlan, identity);
+                if (identity.get(Field.DEVID_AD) != Registers.DEVID_AD_VALUE
+                        || identity.get(Field.DEVID_MST) != Registers.DEVID_MST_VALUE
+                        || identity.get(Field.PARTID) != Registers.PARTID_VALUE) {
+                    errors++;
+                }
+                int pattern = PATTERNS[trial % PATTERNS.length];
+                config.set(Registers.THRESH_ACT_L, pattern).set(Registers.TIME_ACT, ~pattern & 0xFF);
+                adxl362.flushConfig();
+                device[Registers.THRESH_ACT_L] = (byte) config.get(Registers.THRESH_ACT_L);
+                device[Registers.TIME_ACT] = (byte) config.get(Registers.TIME_ACT);
+                adxl362.read(configPlan, readBack);
+                for (int address = RegisterShadow.FIRST; address <= RegisterShadow.LAST; address++) {
+                    if ((readBack.getRegisters()[address] & 0xFF) != config.get(address)) {
+                        errors++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            errors++;
+        }
+        return errors;
+    }
+
+    /**
+     * Write the whole configuration block back as it was before tuning.
+     */
+    private void restore(Adxl362 adxl362, Snapshot baseline) throws IOException {
+        RegisterShadow config = adxl362.getConfig();
+        adxl362.verifyConfig();
+        for (int address = RegisterShadow.FIRST; address <= RegisterShadow.LAST; address++) {
+            config.set(address, baseline.getRegisters()[address]);
+        }
+        adxl362.flushConfig();
+    }
+
+    /**
+     * Outcome of a tuning run.
+     */
+    public static final class Result {
+
+        private final int[] candidates;
+        private final int[] errors;
+        private final int tested;
+        private final int fastestPassing;
+        private final int frequency;
+
+        Result(int[] candidates, int[] errors, int tested, int fastestPassing, int frequency) {
+            this.candidates = candidates;
+            this.errors = errors;
+            this.tested = tested;
+            this.fastestPassing = fastestPassing;
+            this.frequency = frequency;
+        }
+
+        /**
+         * @return SPI clock to be used, in Hz.
+         */
+        public int getFrequency() {
+            return frequency;
+        }
+
+        /**
+         * @return fastest SPI clock that passed every check, in Hz.
+         */
+        public int getFastestPassing() {
+            return fastestPassing;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < tested; i++) {
+                builder.append(String.format("%7.3f MHz: %s%n", candidates[i] / 1e6,
+                        errors[i] == 0 ? "ok" : errors[i] + " errors"));
+            }
+            builder.append(String.format("fastest passing %.3f MHz, using %.3f MHz",
+                    fastestPassing / 1e6, frequency / 1e6));
+            return builder.toString();
+        }
+    }
+}
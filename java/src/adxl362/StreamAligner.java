@@ -0,0 +1,239 @@
+package adxl362;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Aligns the sample streams of several ADXL362s onto one common timebase.
+ * Each stream keeps its own {@link ClockEstimator}, so differences in sample rate
+ * and oscillator drift are tracked continuously. Streams are resampled at a shared
+ * output rate with streaming linear or cubic (Catmull-Rom) interpolation, and one
+ * frame holding every stream is emitted per output tick.
+ * Each stream keeps only the last {@code capacity} samples, so memory is bounded
+ * whatever the input rates. If a stream stalls for longer than its buffer covers,
+ * the output clock jumps ahead and the missed frames are counted, see {@link #getSkippedFrames()}.
+ * Not thread safe, push from a single thread.
+ */
+public final class StreamAligner {
+
+    /**
+     * Interpolation used to resample each stream.
+     */
+    public enum Interpolation {
+        LINEAR,
+        CUBIC
+    }
+
+    /**
+     * Receives the aligned frames.
+     */
+    public interface FrameListener {
+        /**
+         * @param timestampNanos - host time of the frame
+         * @param values - channels of stream 0, then channels of stream 1 and so on.
+         *                 The array is reused for the next frame.
+         */
+        void onFrame(long timestampNanos, float[] values);
+    }
+
+    private final int channels;
+    private final int capacity;
+    private final Interpolation interpolation;
+    private final double outputPeriodNanos;
+    private final FrameListener listener;
+
+    private final ClockEstimator[] clocks;
+    private final float[][] history;
+    private final long[] received;
+    private final float[] frame;
+
+    private double nextFrameNanos = Double.NaN;
+    private long frames;
+    private long skippedFrames;
+
+    /**
+     * @param nominalRatesInHz - configured output data rate of each stream
+     * @param channels - values per sample, e.g. 3 for X, Y, Z
+     * @param outputRateInHz - rate of the aligned frames
+     * @param interpolation - LINEAR or CUBIC
+     * @param capacity - samples kept per stream, at least 4
+     * @param listener - receiver of the aligned frames
+     */
+    public StreamAligner(float[] nominalRatesInHz, int channels, float outputRateInHz,
+            Interpolation interpolation, int capacity, FrameListener listener) {
+        if (capacity < 4) {
+            throw new IllegalArgumentException("capacity must be at least 4 samples");
+        }
+        this.channels = channels;
+        this.capacity = capacity;
+        this.interpolation = interpolation;
+        this.outputPeriodNanos = 1e9 / outputRateInHz;
+        this.listener = listener;
+
+        int streams = nominalRatesInHz.length;
+        clocks = new ClockEstimator[streams];
+        history = new float[streams][capacity * channels];
+        received = new long[streams];
+        frame = new float[streams * channels];
+        for (int s = 0; s < streams; s++) {
+            clocks[s] = new ClockEstimator(nominalRatesInHz[s]);
+        }
+    }
+
+    /**
+     * Append samples of one stream and emit every frame that became complete.
+     * @param stream - stream index
+     * @param samples - interleaved samples, channels values each
+     * @param offset - index of the first value
+     * @param count - number of samples
+     * @param hostNanos - host time at which the last of these samples was received
+     */
+    public void push(int stream, int[] samples, int offset, int count, long hostNanos) {
+        float[] ring = history[stream];
+        for (int i = 0; i < count; i++) {
+            int slot = (int) (received[stream] % capacity) * channels;
+            for (int c = 0; c < channels; c++) {
+                ring[slot + c] = samples[offset + i * channels + c];
+            }
+            received[stream]++;
+        }
+        pushed(stream, count, hostNanos);
+    }
+
+    /**
+     * Append samples of one stream and emit every frame that became complete.
+     * @param stream - stream index
+     * @param samples - interleaved samples, channels values each, as read from the FIFO
+     * @param offset - index of the first value
+     * @param count - number of samples
+     * @param hostNanos - host time at which the last of these samples was received
+     */
+    public void push(int stream, short[] samples, int offset, int count, long hostNanos) {
+        float[] ring = history[stream];
+        for (int i = 0; i < count; i++) {
+            int slot = (int) (received[stream] % capacity) * channels;
+            for (int c = 0; c < channels; c++) {
+                ring[slot + c] = samples[offset + i * channels + c];
+            }
+            received[stream]++;
+        }
+        pushed(stream, count, hostNanos);
+    }
+
+    private void pushed(int stream, int count, long hostNanos) {
+        if (count > 0) {
+            clocks[stream].update(received[stream] - 1, hostNanos);
+        }
+        emitFrames();
+    }
+
+    private void emitFrames() {
+        for (ClockEstimator clock : clocks) {
+            if (!clock.isStarted()) {
+                return;
+            }
+        }
+        int before = interpolation == Interpolation.CUBIC ? 1 : 0;
+        int after = interpolation == Interpolation.CUBIC ? 2 : 1;
+
+        if (Double.isNaN(nextFrameNanos)) {
+            nextFrameNanos = earliestCommonTime(before);
+        }
+        while (true) {
+            // jump over output times that some stream no longer holds in its buffer
+            double earliest = earliestCommonTime(before);
+            if (nextFrameNanos < earliest) {
+                long missed = (long) Math.ceil((earliest - nextFrameNanos) / outputPeriodNanos);
+                skippedFrames += missed;
+                nextFrameNanos += missed * outputPeriodNanos;
+            }
+            boolean covered = true;
+            for (int s = 0; s < clocks.length; s++) {
+                long k = (long) Math.floor(clocks[s].indexAt(nextFrameNanos));
+                if (k + after > received[s] - 1) {
+                    return;     // this stream has not reached the output time yet
+                }
+                covered &= k - before >= Math.max(0, received[s] - capacity);
+            }
+            if (!covered) {
+                skippedFrames++;    // rounding put the tick just before the oldest sample
+                nextFrameNanos += outputPeriodNanos;
+                continue;
+            }
+            for (int s = 0; s < clocks.length; s++) {
+                interpolate(s, nextFrameNanos);
+            }
+            listener.onFrame((long) nextFrameNanos, frame);
+            frames++;
+            nextFrameNanos += outputPeriodNanos;
+        }
+    }
+
+    /**
+     * Earliest host time every stream can still interpolate, given what its buffer holds.
+     */
+    private double earliestCommonTime(int before) {
+        double earliest = Double.NEGATIVE_INFINITY;
+        for (int s = 0; s < clocks.length; s++) {
+            long oldest = Math.max(0, received[s] - capacity);
+            earliest = Math.max(earliest, clocks[s].timeOf(oldest + before));
+        }
+        return earliest;
+    }
+
+    private void interpolate(int stream, double timeNanos) {
+        double position = clocks[stream].indexAt(timeNanos);
+        long k = (long) Math.floor(position);
+        float t = (float) (position - k);
+        float[] ring = history[stream];
+        int base = stream * channels;
+        int s1 = slot(k);
+        int s2 = slot(k + 1);
+        if (interpolation == Interpolation.LINEAR) {
+            for (int c = 0; c < channels; c++) {
+                float p1 = ring[s1 + c];
+                frame[base + c] = p1 + t * (ring[s2 + c] - p1);
+            }
+            return;
+        }
+        int s0 = slot(k - 1);
+        int s3 = slot(k + 2);
+        float t2 = t * t;
+        float t3 = t2 * t;
+        for (int c = 0; c < channels; c++) {
+            float p0 = ring[s0 + c];
+            float p1 = ring[s1 + c];
+            float p2 = ring[s2 + c];
+            float p3 = ring[s3 + c];
+            frame[base + c] = 0.5f * (2 * p1 + (p2 - p0) * t
+                    + (2 * p0 - 5 * p1 + 4 * p2 - p3) * t2
+                    + (3 * p1 - p0 - 3 * p2 + p3) * t3);
+        }
+    }
+
+    private int slot(long index) {
+        return (int) (index % capacity) * channels;
+    }
+
+    /**
+     * @param stream - stream index
+     * @return clock estimate of the stream, e.g. for its effective rate and drift.
+     */
+    public ClockEstimator getClock(int stream) {
+        return clocks[stream];
+    }
+
+    /**
+     * @return number of frames emitted so far.
+     */
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * @return number of output ticks skipped because a stream's buffer no longer covered them.
+     */
+    public long getSkippedFrames() {
+        return skippedFrames;
+    }
+}
@@ -0,0 +1,177 @@
+package adxl362;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Writes samples as CSV or tab separated text.
+ * Numbers are formatted straight into a reusable byte buffer, no String is created
+ * per sample, and the buffer goes to the output stream in large writes only.
+ */
+public final class TextSampleWriter implements Flushable, AutoCloseable {
+
+    /**
+     * Output format.
+     */
+    public enum Format {
+        CSV((byte) ','),
+        TSV((byte) '\t');
+
+        private final byte separator;
+
+        Format(byte separator) {
+            this.separator = separator;
+        }
+    }
+
+    /** Longest formatted long, sign included. */
+    private static final int MAX_NUMBER_LENGTH = 20;
+
+    private final OutputStream out;
+    private final byte separator;
+    private final byte[] buffer;
+    private final byte[] digits = new byte[MAX_NUMBER_LENGTH];
+    private int position;
+    private boolean lineStarted;
+    private long bytesWritten;
+
+    /**
+     * @param out - destination, not buffered by the writer's caller
+     * @param format - CSV or TSV
+     * @param bufferSize - bytes collected before each write to the stream, 64KB is a good start
+     */
+    public TextSampleWriter(OutputStream out, Format format, int bufferSize) {
+        if (bufferSize < MAX_NUMBER_LENGTH + 2) {
+            throw new IllegalArgumentException("buffer too small");
+        }
+        this.out = out;
+        this.separator = format.separator;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Write a header line.
+     * @param columns - column names, plain ASCII
+     * @throws IOException
+     */
+    public void writeHeader(String... columns) throws IOException {
+        for (String column : columns) {
+            startField(column.length());
+            for (int i = 0; i < column.length(); i++) {
+                buffer[position++] = (byte) column.charAt(i);
+            }
+        }
+        endLine();
+    }
+
+    /**
+     * Write one sample as a line.
+     * @param timestamp - time of the sample, in the unit of the caller's choice
+     * @param x - X axis value
+     * @param y - Y axis value
+     * @param z - Z axis value
+     * @throws IOException
+     */
+    public void writeSample(long timestamp, int x, int y, int z) throws IOException {
+        writeNumber(timestamp);
+        writeNumber(x);
+        writeNumber(y);
+        writeNumber(z);
+        endLine();
+    }
+
+    /**
+     * Write one sample with temperature as a line.
+     * @param timestamp - time of the sample, in the unit of the caller's choice
+     * @param x - X axis value
+     * @param y - Y axis value
+     * @param z - Z axis value
+     * @param temp - temperature value
+     * @throws IOException
+     */
+    public void writeSample(long timestamp, int x, int y, int z, int temp) throws IOException {
+        writeNumber(timestamp);
+        writeNumber(x);
+        writeNumber(y);
+        writeNumber(z);
+        writeNumber(temp);
+        endLine();
+    }
+
+    /**
+     * Append a number to the current line.
+     * @param value - value to be formatted in decimal
+     * @throws IOException
+     */
+    public void writeNumber(long value) throws IOException {
+        startField(MAX_NUMBER_LENGTH);
+        if (value < 0) {
+            buffer[position++] = '-';
+        }
+        // format from the least significant digit, negative to also cover Long.MIN_VALUE
+        long remaining = value < 0 ? value : -value;
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' - remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0);
+        while (count > 0) {
+            buffer[position++] = digits[--count];
+        }
+    }
+
+    /**
+     * Terminate the current line.
+     * @throws IOException
+     */
+    public void endLine() throws IOException {
+        ensure(1);
+        buffer[position++] = '\n';
+        lineStarted = false;
+    }
+
+    /**
+     * @return bytes handed to the output stream so far, buffered bytes included.
+     */
+    public long getBytesWritten() {
+        return bytesWritten + position;
+    }
+
+    private void startField(int length) throws IOException {
+        ensure(length + 1);
+        if (lineStarted) {
+            buffer[position++] = separator;
+        }
+        lineStarted = true;
+    }
+
+    private void ensure(int length) throws IOException {
+        if (position + length > buffer.length) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            bytesWritten += position;
+            position = 0;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        out.close();
+    }
+}
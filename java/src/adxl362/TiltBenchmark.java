@@ -0,0 +1,68 @@
+package adxl362;
+
+import java.util.Random;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Compares {@link FastMath} and {@link TiltEstimator} against the {@link Math} based computation,
+ * for accuracy (largest error over random inputs) and speed.
+ * Run with: java -cp Adxl362.jar adxl362.TiltBenchmark [samples]
+ */
+public class TiltBenchmark {
+
+    public static void main(String[] args) {
+        int samples = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        Random random = new Random(362);
+        int[] xyz = new int[samples * 3];
+        for (int i = 0; i < xyz.length; i++) {
+            xyz[i] = random.nextInt(4096) - 2048;      // full 12 bit range
+        }
+
+        double atan2Error = 0;
+        double invSqrtError = 0;
+        for (int i = 0; i < samples; i++) {
+            float y = xyz[i * 3 + 1];
+            float x = xyz[i * 3];
+            atan2Error = Math.max(atan2Error, Math.abs(FastMath.atan2(y, x) - Math.atan2(y, x)));
+            float value = Math.abs(x * y) + 1;
+            double exact = 1 / Math.sqrt(value);
+            invSqrtError = Math.max(invSqrtError, Math.abs(FastMath.invSqrt(value) - exact) / exact);
+        }
+        System.out.println(String.format("atan2 max error %.2e rad (bound %.0e), invSqrt max relative error %.2e (bound %.0e)",
+                atan2Error, FastMath.ATAN2_MAX_ERROR, invSqrtError, FastMath.INV_SQRT_MAX_RELATIVE_ERROR));
+
+        float[] fast = new float[samples * 2];
+        float[] reference = new float[samples * 2];
+        TiltEstimator estimator = new TiltEstimator();
+        for (int round = 0; round < 5; round++) {        // the first rounds warm up the JIT
+            long start = System.nanoTime();
+            estimator.update(xyz, 0, samples, fast);
+            long fastNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            reference(xyz, samples, reference);
+            long referenceNanos = System.nanoTime() - start;
+
+            System.out.println(String.format("round %d: fast %.1f ns/sample, Math %.1f ns/sample",
+                    round, (double) fastNanos / samples, (double) referenceNanos / samples));
+        }
+
+        double angleError = 0;
+        for (int i = 0; i < fast.length; i++) {
+            angleError = Math.max(angleError, Math.abs(fast[i] - reference[i]));
+        }
+        System.out.println(String.format("pitch/roll max error %.5f degrees", angleError));
+    }
+
+    private static void reference(int[] xyz, int count, float[] pitchRoll) {
+        for (int i = 0; i < count; i++) {
+            double x = xyz[i * 3];
+            double y = xyz[i * 3 + 1];
+            double z = xyz[i * 3 + 2];
+            pitchRoll[i * 2] = (float) Math.toDegrees(Math.atan2(-x, Math.sqrt(y * y + z * z)));
+            pitchRoll[i * 2 + 1] = (float) Math.toDegrees(Math.atan2(y, z));
+        }
+    }
+}
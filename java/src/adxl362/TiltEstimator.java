@@ -0,0 +1,182 @@
+package adxl362;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Pitch, roll and face orientation from the gravity vector measured by the ADXL362.
+ * Angles follow the usual convention: roll = atan2(y, z), pitch = atan2(-x, sqrt(y*y + z*z)),
+ * both in degrees. They are computed with {@link FastMath}, the error against
+ * {@link Math#atan2(double, double)} stays within about 0.001 degrees.
+ * The input can be smoothed with an exponential low-pass filter, which is applied to the
+ * vector rather than the angles so nothing jumps at +/-180 degrees.
+ * Only valid while the sensor is not accelerating much besides gravity.
+ */
+public final class TiltEstimator {
+
+    /**
+     * Which face of the board points up.
+     */
+    public enum Orientation {
+        X_UP,
+        X_DOWN,
+        Y_UP,
+        Y_DOWN,
+        Z_UP,
+        Z_DOWN
+    }
+
+    private static final float RADIANS_TO_DEGREES = (float) (180 / Math.PI);
+
+    private final float smoothing;
+    private final float hysteresis;
+
+    private boolean started;
+    private float x;
+    private float y;
+    private float z;
+    private float pitch;
+    private float roll;
+    private Orientation orientation = Orientation.Z_UP;
+
+    /**
+     * Estimator without smoothing.
+     */
+    public TiltEstimator() {
+        this(1f, 0.1f);
+    }
+
+    /**
+     * @param smoothing - weight of a new sample in the low-pass filter, 0 to 1. 1 disables smoothing,
+     *                  0.1 averages over roughly 10 samples.
+     * @param hysteresis - how much larger (as a fraction) another axis has to be than the current
+     *                   face's axis before the orientation changes, e.g. 0.1
+     */
+    public TiltEstimator(float smoothing, float hysteresis) {
+        if (smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("smoothing must be in ]0, 1]");
+        }
+        this.smoothing = smoothing;
+        this.hysteresis = hysteresis;
+    }
+
+    /**
+     * Add a sample. Any unit works as long as the three axes share it, raw counts are fine.
+     * @param ax - X axis value
+     * @param ay - Y axis value
+     * @param az - Z axis value
+     */
+    public void update(float ax, float ay, float az) {
+        if (started) {
+            x += smoothing * (ax - x);
+            y += smoothing * (ay - y);
+            z += smoothing * (az - z);
+        } else {
+            x = ax;
+            y = ay;
+            z = az;
+            started = true;
+        }
+
+        roll = FastMath.atan2(y, z) * RADIANS_TO_DEGREES;
+        float yz = y * y + z * z;
+        if (yz > 0) {
+            // atan2(-x, sqrt(yz)) without the square root
+            float ratio = -x * FastMath.invSqrt(yz);
+            pitch = FastMath.atan2(ratio, 1f) * RADIANS_TO_DEGREES;
+        } else {
+            pitch = x > 0 ? -90f : 90f;
+        }
+        orientation = face(orientation);
+    }
+
+    /**
+     * Process a batch of interleaved samples.
+     * @param xyz - interleaved X, Y, Z values
+     * @param offset - index of the first X value
+     * @param count - number of samples
+     * @param pitchRoll - receives pitch and roll of each sample, 2 * count values from index 0
+     */
+    public void update(int[] xyz, int offset, int count, float[] pitchRoll) {
+        for (int i = 0; i < count; i++) {
+            int index = offset + i * 3;
+            update(xyz[index], xyz[index + 1], xyz[index + 2]);
+            pitchRoll[i * 2] = pitch;
+            pitchRoll[i * 2 + 1] = roll;
+        }
+    }
+
+    /**
+     * Process a batch of interleaved samples.
+     * @param xyz - interleaved X, Y, Z values, as read from the FIFO
+     * @param offset - index of the first X value
+     * @param count - number of samples
+     * @param pitchRoll - receives pitch and roll of each sample, 2 * count values from index 0
+     */
+    public void update(short[] xyz, int offset, int count, float[] pitchRoll) {
+        for (int i = 0; i < count; i++) {
+            int index = offset + i * 3;
+            update(xyz[index], xyz[index + 1], xyz[index + 2]);
+            pitchRoll[i * 2] = pitch;
+            pitchRoll[i * 2 + 1] = roll;
+        }
+    }
+
+    private Orientation face(Orientation current) {
+        float absX = Math.abs(x);
+        float absY = Math.abs(y);
+        float absZ = Math.abs(z);
+        float currentMagnitude;
+        switch (current) {
+            case X_UP:
+            case X_DOWN:
+                currentMagnitude = absX;
+                break;
+            case Y_UP:
+            case Y_DOWN:
+                currentMagnitude = absY;
+                break;
+            default:
+                currentMagnitude = absZ;
+                break;
+        }
+        Orientation candidate;
+        float magnitude;
+        if (absX >= absY && absX >= absZ) {
+            candidate = x > 0 ? Orientation.X_UP : Orientation.X_DOWN;
+            magnitude = absX;
+        } else if (absY >= absZ) {
+            candidate = y > 0 ? Orientation.Y_UP : Orientation.Y_DOWN;
+            magnitude = absY;
+        } else {
+            candidate = z > 0 ? Orientation.Z_UP : Orientation.Z_DOWN;
+            magnitude = absZ;
+        }
+        boolean sameAxis = candidate.ordinal() / 2 == current.ordinal() / 2;
+        if (sameAxis || magnitude > currentMagnitude * (1 + hysteresis)) {
+            return candidate;
+        }
+        return current;
+    }
+
+    /**
+     * @return pitch in degrees, -90 to 90.
+     */
+    public float getPitch() {
+        return pitch;
+    }
+
+    /**
+     * @return roll in degrees, -180 to 180.
+     */
+    public float getRoll() {
+        return roll;
+    }
+
+    /**
+     * @return face pointing up.
+     */
+    public Orientation getOrientation() {
+        return orientation;
+    }
+}
@@ -0,0 +1,34 @@
+package adxl362;
+
+import com.pi4j.io.spi.SpiChannel;
+import com.pi4j.io.spi.SpiFactory;
+import com.pi4j.io.spi.SpiMode;
+import java.io.IOException;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Runs {@link TransportConformance} over pi4j, the Android Things library runs the same checks
+ * over its own transport. Exits with 1 if a check failed.
+ * Run with: java -cp Adxl362.jar:pi4j-core.jar adxl362.TransportCheck [channel] [frequency] [rounds]
+ */
+public class TransportCheck {
+
+    public static void main(String[] args) {
+        SpiChannel channel = args.length > 0 && args[0].equals("1") ? SpiChannel.CS1 : SpiChannel.CS0;
+        int frequency = args.length > 1 ? Integer.parseInt(args[1]) : 5000000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        try {
+            TransportConformance.Report report = TransportConformance.run(
+                    new Pi4jTransport(SpiFactory.getInstance(channel, frequency, SpiMode.MODE_0)), rounds);
+            System.out.println(report);
+            if (!report.isPassed()) {
+                System.exit(1);
+            }
+        } catch (IOException | InterruptedException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
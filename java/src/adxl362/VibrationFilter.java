@@ -0,0 +1,194 @@
+package adxl362;
+
+/**
+ *
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Band limited vibration velocity RMS per axis, computed on the device.
+ * Per axis, acceleration goes through a 4th order Butterworth high-pass at the lower band edge
+ * (which also removes gravity), a 2nd order Butterworth low-pass at the upper band edge, then
+ * is integrated (trapezoidal rule) to velocity. A 2nd order high-pass after each integration
+ * keeps the integrator from drifting. It sits a decade below the lower band edge, so the band
+ * edges are only the -3dB of the band-pass, the drift filters take 0.01% at the lower one.
+ * Optionally velocity is integrated again to displacement.
+ * RMS values are reported once per window, so one number per axis can be sent instead of
+ * the raw waveform. All state is preallocated, processing allocates nothing.
+ * The trapezoidal rule reads slightly low towards the upper band edge, about 5% at an eighth
+ * of the sample rate. Call {@link #reset()} after a gap in the stream.
+ * The filters are primed from the first sample after construction and after {@link #reset()},
+ * as if the input had been constant before it: gravity causes no start up step, so no window
+ * is dropped. A vibration already running at the first sample still leaves the integrators an
+ * offset that the drift filters remove in about one period of their cutoff (1s for a 10Hz band),
+ * over which displacement may read a few percent high; velocity is within 1%.
+ */
+public class VibrationFilter {
+
+    /**
+     * Receives the RMS values of each window.
+     */
+    public interface WindowListener {
+        /**
+         * @param velocityRms - X, Y, Z velocity RMS in mm/s
+         * @param displacementRms - X, Y, Z displacement RMS in micrometres, null if disabled.
+         *                        Both arrays are reused for the next window.
+         */
+        void onWindow(float[] velocityRms, float[] displacementRms);
+    }
+
+    private static final double STANDARD_GRAVITY = 9.80665;
+    /** Cutoff of the anti-drift high-passes, relative to the lower band edge. */
+    private static final float DRIFT_CUTOFF = 0.1f;
+
+    private final double scale;
+    private final double halfPeriod;
+    private final int windowSamples;
+    private final boolean displacement;
+    private final WindowListener listener;
+
+    private final Biquad[][] bandPass = new Biquad[3][];
+    private final Biquad[] velocityHighPass = new Biquad[3];
+    private final Biquad[] displacementHighPass = new Biquad[3];
+    private final double[] lastAcceleration = new double[3];
+    private final double[] velocity = new double[3];
+    private final double[] lastVelocity = new double[3];
+    private final double[] position = new double[3];
+    private final double[] velocitySquares = new double[3];
+    private final double[] displacementSquares = new double[3];
+    private final float[] velocityRms = new float[3];
+    private final float[] displacementRms;
+    private int windowCount;
+    private boolean primed;
+
+    /**
+     * @param sampleRateHz - output data rate
+     * @param lowHz - lower band edge, e.g. 10Hz as in ISO 10816
+     * @param highHz - upper band edge, below half the sample rate
+     * @param milliGPerLsb - sensitivity, see {@link Range#getMilliGPerLsb()}
+     * @param windowSamples - samples per RMS window
+     * @param displacement - also compute displacement RMS
+     * @param listener - receiver of the RMS values
+     */
+    public VibrationFilter(float sampleRateHz, float lowHz, float highHz, float milliGPerLsb,
+            int windowSamples, boolean displacement, WindowListener listener) {
+        if (lowHz <= 0 || highHz <= lowHz || highHz >= sampleRateHz / 2) {
+            throw new IllegalArgumentException("band must satisfy 0 < low < high < sample rate / 2");
+        }
+        this.scale = milliGPerLsb / 1000.0 * STANDARD_GRAVITY;      // LSB to m/s2
+        this.halfPeriod = 0.5 / sampleRateHz;
+        this.windowSamples = windowSamples;
+        this.displacement = displacement;
+        this.listener = listener;
+        this.displacementRms = displacement ? new float[3] : null;
+
+        for (int axis = 0; axis < 3; axis++) {
+            bandPass[axis] = new Biquad[] {
+                Biquad.highPass(sampleRateHz, lowHz, Biquad.butterworthQ(4, 0)),
+                Biquad.highPass(sampleRateHz, lowHz, Biquad.butterworthQ(4, 1)),
+                Biquad.lowPass(sampleRateHz, highHz, Biquad.butterworthQ(2, 0))
+            };
+            velocityHighPass[axis] = Biquad.highPass(sampleRateHz, lowHz * DRIFT_CUTOFF, Biquad.butterworthQ(2, 0));
+            displacementHighPass[axis] = Biquad.highPass(sampleRateHz, lowHz * DRIFT_CUTOFF, Biquad.butterworthQ(2, 0));
+        }
+    }
+
+    /**
+     * Filter a batch of samples, calling the listener for every window completed.
+     * @param xyz - interleaved raw X, Y, Z values
+     * @param offset - index of the first X value
+     * @param count - number of samples
+     */
+    public void process(short[] xyz, int offset, int count) {
+        for (int i = 0; i < count; i++) {
+            int index = offset + i * 3;
+            for (int axis = 0; axis < 3; axis++) {
+                processAxis(axis, xyz[index + axis]);
+            }
+            endSample();
+        }
+    }
+
+    /**
+     * Filter a batch of samples, calling the listener for every window completed.
+     * @param xyz - interleaved raw X, Y, Z values
+     * @param offset - index of the first X value
+     * @param count - number of samples
+     */
+    public void process(int[] xyz, int offset, int count) {
+        for (int i = 0; i < count; i++) {
+            int index = offset + i * 3;
+            for (int axis = 0; axis < 3; axis++) {
+                processAxis(axis, xyz[index + axis]);
+            }
+            endSample();
+        }
+    }
+
+    private void processAxis(int axis, int raw) {
+        Biquad[] sections = bandPass[axis];
+        double a = raw * scale;
+        if (!primed) {
+            prime(axis, a);
+        }
+        for (Biquad section : sections) {
+            a = section.process(a);
+        }
+        velocity[axis] += (a + lastAcceleration[axis]) * halfPeriod;
+        lastAcceleration[axis] = a;
+        double v = velocityHighPass[axis].process(velocity[axis]);
+        velocitySquares[axis] += v * v;
+
+        if (displacement) {
+            position[axis] += (v + lastVelocity[axis]) * halfPeriod;
+            lastVelocity[axis] = v;
+            double d = displacementHighPass[axis].process(position[axis]);
+            displacementSquares[axis] += d * d;
+        }
+    }
+
+    private void prime(int axis, double a) {
+        for (Biquad section : bandPass[axis]) {
+            a = section.prime(a);       // 0 once past the high-pass
+        }
+        lastAcceleration[axis] = a;
+        velocityHighPass[axis].prime(velocity[axis]);
+        displacementHighPass[axis].prime(position[axis]);
+    }
+
+    private void endSample() {
+        primed = true;
+        if (++windowCount < windowSamples) {
+            return;
+        }
+        for (int axis = 0; axis < 3; axis++) {
+            velocityRms[axis] = (float) (Math.sqrt(velocitySquares[axis] / windowCount) * 1e3);          // mm/s
+            velocitySquares[axis] = 0;
+            if (displacement) {
+                displacementRms[axis] = (float) (Math.sqrt(displacementSquares[axis] / windowCount) * 1e6); // um
+                displacementSquares[axis] = 0;
+            }
+        }
+        windowCount = 0;
+        listener.onWindow(velocityRms, displacementRms);
+    }
+
+    /**
+     * Clear all filter and integrator state, e.g. after a gap in the stream.
+     */
+    public void reset() {
+        for (int axis = 0; axis < 3; axis++) {
+            for (Biquad section : bandPass[axis]) {
+                section.reset();
+            }
+            velocityHighPass[axis].reset();
+            displacementHighPass[axis].reset();
+            lastAcceleration[axis] = 0;
+            velocity[axis] = 0;
+            lastVelocity[axis] = 0;
+            position[axis] = 0;
+            velocitySquares[axis] = 0;
+            displacementSquares[axis] = 0;
+        }
+        windowCount = 0;
+        primed = false;
+    }
+}
@@ -25,6 +25,8 @@ import android.os.Bundle;
 import android.os.Handler;
 import android.util.Log;
 
+import com.google.android.things.pio.SpiDevice;
+
 import java.io.IOException;
 
 import vaf.vishal.adxl362.Adxl362AccelerometerDriver;
@@ -71,7 +73,7 @@ public class MainActivity extends Activity implements SensorEventListener {
         });
 
         try {
-            mDriver = new Adxl362AccelerometerDriver("SPI0.0");
+            mDriver = new Adxl362AccelerometerDriver("SPI0.0", 5000000, SpiDevice.MODE0);
             mDriver.register();
         } catch (IOException e) {
             e.printStackTrace();
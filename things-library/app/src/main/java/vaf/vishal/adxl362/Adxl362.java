@@ -3,18 +3,25 @@ package vaf.vishal.adxl362;
 import android.os.Handler;
 import android.util.Log;
 
-import com.google.android.things.pio.Gpio;
 import com.google.android.things.pio.PeripheralManagerService;
 import com.google.android.things.pio.SpiDevice;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.util.Arrays;
+import java.io.InterruptedIOException;
+
+import adxl362.Adxl362Device;
+import adxl362.FaultGuard;
+import adxl362.Field;
+import adxl362.Odr;
+import adxl362.ReadPlan;
+import adxl362.Snapshot;
 
 /**
  * @author Vishal Dubey (vishal-android-freak)
  * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
  * Android Things library for interfacing ADXL362 3 Axis accelerometer with Raspberry Pi 3 (Core)
+ * The driver itself is {@link Adxl362Device}, shared with the pi4j library,
+ * this class only opens the SPI device and runs the start up sequence.
  * X, Y and Z axis values are obtained as integers.
  * Temperature values are obtained as integers.
  * TODO: Handle interrupt based interfacing
@@ -24,7 +31,11 @@ public class Adxl362 implements AutoCloseable {
 
     private static final String TAG = "Adxl362";
     private SpiDevice device;
+    private final Adxl362Device mCore;
+    private final FaultGuard mGuard;
+    private final ReadPlan mXyzTempPlan = new ReadPlan(Field.X, Field.Y, Field.Z, Field.TEMP);
     private Handler mHandler = new Handler();
+    private volatile boolean mStarted;
 
 
     /**
@@ -39,6 +50,8 @@ public class Adxl362 implements AutoCloseable {
     public Adxl362(String spiPort, int frequencyInHz, int mode) throws IOException {
         PeripheralManagerService service = new PeripheralManagerService();
         device = service.openSpiDevice(spiPort);
+        mCore = new Adxl362Device(new ThingsSpiTransport(device));
+        mGuard = new FaultGuard(mCore);
         connfigureSpi(device, frequencyInHz, mode);
     }
 
@@ -59,15 +72,28 @@ public class Adxl362 implements AutoCloseable {
     }
 
     /**
-     * Puts the accelerometer in measurement mode.
-     * This method is mandatory to be called before starting
-     * with the readings of X, Y, Z and Temp values.
-     * @throws IOException
-     * @throws InterruptedException
+     * Shared driver core, for read plans, configuration, FIFO reads and fault recovery.
+     * @return the core of this device.
      */
-    private void beginMeasurement() throws IOException, InterruptedException {
-        device.write(new byte[]{(byte) 0x0A, (byte) 0x2D, (byte) 0x02}, 3);
-        Thread.sleep(10);
+    public Adxl362Device getDevice() {
+        return mCore;
+    }
+
+    /**
+     * The device is reset and put in measurement mode about 2 seconds after construction,
+     * axis values read before are not samples.
+     * @return true once the start up sequence is over.
+     */
+    public boolean isStarted() {
+        return mStarted;
+    }
+
+    /**
+     * Fault detection and recovery of this device, shared by every reader of samples.
+     * @return the guard of this device.
+     */
+    public FaultGuard getFaultGuard() {
+        return mGuard;
     }
 
     /**
@@ -76,7 +102,7 @@ public class Adxl362 implements AutoCloseable {
      * @throws IOException
      */
     public int readXData() throws IOException {
-        return readRegisterValues(0x0E);
+        return mCore.readXData();
     }
 
     /**
@@ -85,7 +111,7 @@ public class Adxl362 implements AutoCloseable {
      * @throws IOException
      */
     public int readYData() throws IOException {
-        return readRegisterValues(0x10);
+        return mCore.readYData();
     }
 
     /**
@@ -94,7 +120,7 @@ public class Adxl362 implements AutoCloseable {
      * @throws IOException
      */
     public int readZData() throws IOException {
-        return readRegisterValues(0x12);
+        return mCore.readZData();
     }
 
     /**
@@ -103,41 +129,58 @@ public class Adxl362 implements AutoCloseable {
      * @throws IOException
      */
     public int readTempData() throws IOException {
-        return readRegisterValues(0x14);
+        return mCore.readTempData();
     }
 
     /**
      * Read X, Y, Z axis and temperature values simultaneously.
      * A burst read of all the three axis is required for all measurements
      * corresponding to same sample rate.
+     * The read goes through the {@link FaultGuard}, SPI faults are retried and recovered from.
+     * Fails until the start up sequence is over, see {@link #isStarted()}.
      * @return array of integer values of X, Y, Z axis and temperature.
      * @throws IOException
      */
     public float[] readXYZTempData() throws IOException {
-        float[] result = new float[4];
-
-        byte[] data = new byte[10];
-        byte[] output = new byte[10];
-
-        data[0] = 0x0B;
-        data[1] = 0x0E;
-        data[2] = 0x00;             // XAXIS_L register
-        data[3] = 0x00;             // XAXIS_H register
-        data[4] = 0x00;             // YAXIS_L register
-        data[5] = 0x00;             // YAXIS_H register
-        data[6] = 0x00;             // ZAXIS_L register
-        data[7] = 0x00;             // ZAXIS_H register
-        data[8] = 0x00;             // TEMPERATURE_L register
-        data[9] = 0x00;             // TEMPERATURE_H register
-
-        device.transfer(data, output, data.length);
-
-        result[0] = (output[2] & 0xFF) + (output[3] << 8); // 16 bit XAXIS values
-        result[1] = (output[4] & 0xFF) + (output[5] << 8); // 16 bit YAXIS values
-        result[2] = (output[6] & 0xFF) + (output[7] << 8); // 16 bit ZAXIS values
-        result[3] = (output[8] & 0xFF) + (output[9] << 8); // 16 bit TEMP values
-
-        return result;
+        if (!mStarted) {
+            throw new IOException("ADXL362 is still starting up");
+        }
+        Snapshot snapshot = new Snapshot();
+        try {
+            mGuard.read(mXyzTempPlan, snapshot);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while recovering from an SPI fault");
+        }
+        return new float[]{snapshot.getX(), snapshot.getY(), snapshot.getZ(), snapshot.getTemp()};
+    }
+
+    /**
+     * Read X, Y and Z axis values with one burst read, without allocating.
+     * Meant for high rate sampling loops, see {@link Adxl362SampleStream}.
+     * @param destination array receiving X, Y and Z
+     * @param offset index of X in the destination
+     * @throws IOException
+     */
+    public void readXYZData(short[] destination, int offset) throws IOException {
+        mCore.readXYZData(destination, offset);
+    }
+
+    /**
+     * Set the output data rate of the accelerometer.
+     * The closest rate not below the requested one is used, up to 400Hz.
+     * The setting survives the soft reset done at start up.
+     * @param hertz requested sample rate in Hz
+     * @return the rate actually configured, in Hz.
+     * @throws IOException
+     */
+    public float setOutputDataRate(float hertz) throws IOException {
+        Odr odr = Odr.atLeast(hertz);
+        synchronized (mCore) {
+            mCore.getConfig().setOdr(odr);
+            mCore.flushConfig();
+        }
+        return odr.getHertz();
     }
 
     /**
@@ -148,39 +191,19 @@ public class Adxl362 implements AutoCloseable {
         @Override
         public void run() {
             try {
-                device.write(new byte[]{(byte) 0x0A, (byte) 0x1F, (byte) 0x52}, 3);
-                Thread.sleep(1000);
-                beginMeasurement();
+                synchronized (mCore) {
+                    Odr odr = mCore.getConfig().getOdr();       // may have been set before the reset
+                    mCore.doSoftReset();
+                    mCore.getConfig().setOdr(odr);
+                    mCore.beginMeasurement();
+                }
+                mStarted = true;
             } catch (IOException | InterruptedException e) {
                 Log.d(TAG, "Couldn't write over SPI");
             }
         }
     };
 
-    /**
-     * Read register values.
-     * @param regAddress register address to be read.
-     * @return 16 bit integer values combining both LSB and MSB registers.
-     * @throws IOException
-     */
-    private int readRegisterValues(int regAddress) throws IOException {
-        byte[] data = new byte[4];
-        byte[] output = new byte[4];
-
-        data[0] = 0x0B;             // read instruction
-        data[1] = (byte) regAddress;
-        data[2] = 0x00;             // the byte to be read
-        data[3] = 0x00;             // next byte to read
-
-        try {
-            device.transfer(data, output, data.length);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-
-        return ((output[2] & 0xFF) + (output[3] << 8));
-    }
-
     @Override
     public void close() throws Exception {
 
@@ -2,6 +2,7 @@ package vaf.vishal.adxl362;
 
 import android.hardware.Sensor;
 import android.hardware.SensorManager;
+import android.os.Handler;
 
 import com.google.android.things.pio.SpiDevice;
 import com.google.android.things.userdriver.UserDriverManager;
@@ -30,6 +31,7 @@ public class Adxl362AccelerometerDriver implements AutoCloseable {
 
     private Adxl362 mDevice;
     private UserSensor mUserSensor;
+    private Adxl362SampleStream mSampleStream;
 
     /**
      * Creates a new ADXL362 driver instance
@@ -47,6 +49,10 @@ public class Adxl362AccelerometerDriver implements AutoCloseable {
     @Override
     public void close() throws Exception {
         unregister();
+        if (mSampleStream != null) {
+            mSampleStream.stop();
+            mSampleStream = null;
+        }
         if (mDevice != null) {
             try {
                 mDevice.close();
@@ -80,6 +86,43 @@ public class Adxl362AccelerometerDriver implements AutoCloseable {
         }
     }
 
+    /**
+     * Deliver samples straight to a listener, bypassing the SensorManager and its
+     * per sample SensorEvent. Use this when the full output data rate (up to 400Hz) is needed.
+     * Only one listener can be registered at a time, there is a single sampling thread and
+     * the output data rate follows the listener's rate. Fan the batches out from the listener
+     * if several consumers need them.
+     * @param listener receiver of the sample batches
+     * @param handler Handler the listener is called on
+     * @param rateInHz sampling rate, the output data rate of the device is set to match it
+     * @param batchSize number of samples per callback
+     * @throws IOException
+     * @see #unregisterSampleListener(Adxl362SampleListener)
+     */
+    public void registerSampleListener(Adxl362SampleListener listener, Handler handler,
+                                       float rateInHz, int batchSize) throws IOException {
+        if (mDevice == null) {
+            throw new IllegalStateException("cannot register listener on closed driver");
+        }
+        if (mSampleStream != null) {
+            throw new IllegalStateException("a sample listener is already registered");
+        }
+        float rate = mDevice.setOutputDataRate(rateInHz);
+        mSampleStream = new Adxl362SampleStream(mDevice, listener, handler, rate, batchSize);
+        mSampleStream.start();
+    }
+
+    /**
+     * Stop delivering samples to a listener. The listener is not called once this method returns.
+     * @param listener listener passed to {@link #registerSampleListener(Adxl362SampleListener, Handler, float, int)}
+     */
+    public void unregisterSampleListener(Adxl362SampleListener listener) {
+        if (mSampleStream != null && mSampleStream.isFor(listener)) {
+            mSampleStream.stop();
+            mSampleStream = null;
+        }
+    }
+
     /**
      * Build User sesnor to be registered with the Android Things framework
      * @param adxl362 instance of core ADXL362.java
@@ -0,0 +1,22 @@
+package vaf.vishal.adxl362;
+
+/**
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Receives batches of raw ADXL362 samples without going through the SensorManager.
+ * Register it with {@link Adxl362AccelerometerDriver#registerSampleListener(Adxl362SampleListener, android.os.Handler, float, int)}.
+ * A driver delivers to one listener at a time.
+ */
+public interface Adxl362SampleListener {
+
+    /**
+     * Called on the listener's Handler with a batch of samples.
+     * The arrays are recycled once this method returns, copy what has to be kept.
+     * @param xyz interleaved raw X, Y and Z values, 3 * count entries.
+     *            Multiply by the range sensitivity (1mg/LSB at +/-2g) to get g.
+     * @param timestampsNanos {@link android.os.SystemClock#elapsedRealtimeNanos()} of each sample
+     * @param count number of samples in the batch
+     * @param dropped number of samples lost since the previous batch because the listener was too slow
+     */
+    void onSamples(short[] xyz, long[] timestampsNanos, int count, int dropped);
+}
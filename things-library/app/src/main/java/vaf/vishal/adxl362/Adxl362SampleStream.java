@@ -0,0 +1,189 @@
+package vaf.vishal.adxl362;
+
+import android.os.Handler;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.locks.LockSupport;
+
+import adxl362.Field;
+import adxl362.ReadPlan;
+import adxl362.Snapshot;
+import adxl362.SpiFaultException;
+
+/**
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * Samples the ADXL362 on a dedicated thread and hands batches of primitive arrays
+ * to an {@link Adxl362SampleListener} on the listener's Handler.
+ * The device's own clock paces the stream: STATUS is polled and a sample is only taken
+ * when DATA_READY is set, so no sample is taken twice. Samples the chip produced but the
+ * host missed are found from the arrival times and reported as dropped, including those
+ * lost to an SPI fault. Nothing is delivered before the start up reset of the device is over.
+ * Batch buffers are allocated once and recycled, so the steady state allocates nothing.
+ * Once {@link #stop()} returns the listener is not called again: batches still queued on the
+ * Handler are removed, and a batch already dequeued is dropped without calling the listener.
+ * Reads go through the device's {@link adxl362.FaultGuard}: frames are validated, the device ID
+ * and configuration are checked, and SPI faults are recovered from in place.
+ */
+class Adxl362SampleStream {
+
+    private static final String TAG = Adxl362SampleStream.class.getSimpleName();
+    private static final int BATCH_POOL_SIZE = 4;
+    private static final int STATUS_DATA_READY = 0x01;
+
+    private final Adxl362 mDevice;
+    private final ReadPlan mPlan = new ReadPlan(Field.STATUS, Field.X, Field.Y, Field.Z);
+    private final Snapshot mSnapshot = new Snapshot();
+    private final Adxl362SampleListener mListener;
+    private final Handler mHandler;
+    private final long mPeriodNanos;
+    private final Batch[] mBatches = new Batch[BATCH_POOL_SIZE];
+    private final ArrayBlockingQueue<Batch> mFreeBatches = new ArrayBlockingQueue<>(BATCH_POOL_SIZE);
+    private volatile boolean mRunning;
+    private Thread mThread;
+
+    /**
+     * @param device accelerometer to be sampled
+     * @param listener receiver of the batches
+     * @param handler Handler the listener is called on
+     * @param rateInHz output data rate of the device, sets the polling interval
+     * @param batchSize number of samples per batch
+     */
+    Adxl362SampleStream(Adxl362 device, Adxl362SampleListener listener, Handler handler,
+                        float rateInHz, int batchSize) {
+        if (rateInHz <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("rate and batch size must be positive");
+        }
+        mDevice = device;
+        mListener = listener;
+        mHandler = handler;
+        mPeriodNanos = (long) (1000000000L / rateInHz);
+        for (int i = 0; i < BATCH_POOL_SIZE; i++) {
+            mBatches[i] = new Batch(batchSize);
+            mFreeBatches.add(mBatches[i]);
+        }
+    }
+
+    /**
+     * Start the sampling thread.
+     */
+    void start() {
+        if (mThread != null) {
+            return;
+        }
+        mRunning = true;
+        mThread = new Thread(mSampler, TAG);
+        mThread.start();
+    }
+
+    /**
+     * Stop the sampling thread and wait for it to exit. Samples of a partial batch are discarded,
+     * and so are batches posted but not yet delivered.
+     */
+    void stop() {
+        mRunning = false;
+        if (mThread != null) {
+            LockSupport.unpark(mThread);
+            try {
+                mThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            mThread = null;
+        }
+        for (Batch batch : mBatches) {
+            mHandler.removeCallbacks(batch);
+        }
+    }
+
+    boolean isFor(Adxl362SampleListener listener) {
+        return mListener == listener;
+    }
+
+    private final Runnable mSampler = new Runnable() {
+        @Override
+        public void run() {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_URGENT_AUDIO);
+            Batch batch = null;
+            int dropped = 0;
+            long last = -1;
+            while (mRunning) {
+                if (!mDevice.isStarted()) {
+                    LockSupport.parkNanos(mPeriodNanos);       // start up reset, the axis registers read 0
+                    continue;
+                }
+                if (batch == null) {
+                    batch = mFreeBatches.poll();
+                }
+                try {
+                    mDevice.getFaultGuard().read(mPlan, mSnapshot);
+                    if ((mSnapshot.getStatus() & STATUS_DATA_READY) == 0) {
+                        LockSupport.parkNanos(mPeriodNanos / 8);
+                        continue;
+                    }
+                    long timestamp = SystemClock.elapsedRealtimeNanos();
+                    if (last >= 0) {
+                        long missed = (timestamp - last + mPeriodNanos / 2) / mPeriodNanos - 1;
+                        if (missed > 0) {
+                            dropped += missed;      // the chip produced samples we never saw
+                        }
+                    }
+                    last = timestamp;
+                    if (batch != null) {
+                        int index = batch.count * 3;
+                        batch.xyz[index] = (short) mSnapshot.getX();
+                        batch.xyz[index + 1] = (short) mSnapshot.getY();
+                        batch.xyz[index + 2] = (short) mSnapshot.getZ();
+                        batch.timestamps[batch.count++] = timestamp;
+                        if (batch.count == batch.timestamps.length) {
+                            batch.dropped = dropped;
+                            dropped = 0;
+                            mHandler.post(batch);
+                            batch = null;
+                        }
+                    } else {
+                        dropped++;      // every buffer is still with the listener
+                    }
+                } catch (SpiFaultException e) {
+                    Log.w(TAG, "ADXL362 not recovered", e);
+                } catch (IOException e) {
+                    Log.w(TAG, "Couldn't read over SPI", e);
+                } catch (InterruptedException e) {
+                    break;      // stop() or the system, the partial batch is discarded
+                }
+                LockSupport.parkNanos(mPeriodNanos / 2);      // the next sample is one period away
+            }
+        }
+    };
+
+    /**
+     * One recyclable batch of samples, posted to the listener's Handler.
+     */
+    private final class Batch implements Runnable {
+        final short[] xyz;
+        final long[] timestamps;
+        int count;
+        int dropped;
+
+        Batch(int size) {
+            xyz = new short[size * 3];
+            timestamps = new long[size];
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (mRunning) {     // dequeued before stop() removed it
+                    mListener.onSamples(xyz, timestamps, count, dropped);
+                }
+            } finally {
+                count = 0;
+                mFreeBatches.offer(this);
+            }
+        }
+    }
+}
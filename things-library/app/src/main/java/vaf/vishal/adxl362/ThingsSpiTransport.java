@@ -0,0 +1,29 @@
+package vaf.vishal.adxl362;
+
+import com.google.android.things.pio.SpiDevice;
+
+import java.io.IOException;
+
+import adxl362.SpiTransport;
+
+/**
+ * @author Vishal Dubey (vishal-android-freak)
+ * @link https://github.com/vishal-android-freak/ADXL362-Interfacing-Library
+ * {@link SpiTransport} over an Android Things SpiDevice, the transfer maps one to one.
+ */
+public final class ThingsSpiTransport implements SpiTransport {
+
+    private final SpiDevice mDevice;
+
+    /**
+     * @param device SPI device, already configured
+     */
+    public ThingsSpiTransport(SpiDevice device) {
+        mDevice = device;
+    }
+
+    @Override
+    public void transfer(byte[] tx, byte[] rx, int length) throws IOException {
+        mDevice.transfer(tx, rx, length);
+    }
+}